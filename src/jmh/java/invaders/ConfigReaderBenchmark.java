@@ -0,0 +1,58 @@
+package invaders;
+
+import invaders.engine.BenchmarkConfigs;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of parsing and validating a level config, and of getting it again from the cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigReaderBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int enemies;
+
+    private Path config;
+
+    @Setup(Level.Trial)
+    public void writeConfig() {
+        config = BenchmarkConfigs.write(enemies);
+    }
+
+    @Benchmark
+    public GameConfig read() {
+        return ConfigReader.read(config);
+    }
+
+    /**
+     * Pull-parse the level without keeping any of it
+     */
+    @Benchmark
+    public int stream() {
+        int[] enemies = new int[1];
+        LevelReader.read(config, new LevelHandler() {
+            public void size(GameConfig.Size size) {}
+            public void player(GameConfig.PlayerConfig player) {}
+            public void bunker(GameConfig.BunkerConfig bunker) {}
+            public void enemy(GameConfig.EnemyConfig enemy) {
+                enemies[0]++;
+            }
+        });
+        return enemies[0];
+    }
+
+    /**
+     * Level switch after the first load: a file stat and a cache lookup
+     */
+    @Benchmark
+    public GameConfig parseCached() {
+        return ConfigReader.parse(config.toString());
+    }
+}
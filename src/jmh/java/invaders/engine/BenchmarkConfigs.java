@@ -0,0 +1,68 @@
+package invaders.engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes generated level configs for the benchmarks.
+ *
+ * Enemies are laid out in a square-ish grid 30px apart, alternating fast and slow
+ * shooters; the game area grows with the formation so enemies never start overlapped.
+ */
+public final class BenchmarkConfigs {
+    private static final int SPACING = 30;
+
+    /** Seed of every benchmark engine, so fire timing is the same in every fork and run */
+    public static final long SEED = 1;
+
+    private BenchmarkConfigs() {}
+
+    /**
+     * Write a config with the given number of enemies to a temporary file
+     */
+    public static Path write(int enemies) {
+        int columns = (int) Math.ceil(Math.sqrt(enemies));
+        int rows = (enemies + columns - 1) / columns;
+        int width = Math.max(600, columns * SPACING + 100);
+        int height = Math.max(800, rows * SPACING + 400);
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\"Game\":{\"size\":{\"x\":").append(width).append(",\"y\":").append(height).append("}},");
+        json.append("\"Player\":{\"speed\":1,\"lives\":3,\"position\":{\"x\":").append(width / 2)
+                .append(",\"y\":").append(height - 50).append("}},");
+
+        json.append("\"Bunkers\":[");
+        for (int i = 0; i < 3; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"position\":{\"x\":").append(width * (i + 1) / 4 - 50)
+                    .append(",\"y\":").append(height - 100).append("},\"size\":{\"x\":100,\"y\":25}}");
+        }
+        json.append("],");
+
+        json.append("\"Enemies\":[");
+        for (int i = 0; i < enemies; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            int x = 50 + (i % columns) * SPACING;
+            int y = 100 + (i / columns) * SPACING;
+            json.append("{\"position\":{\"x\":").append(x).append(",\"y\":").append(y)
+                    .append("},\"projectile\":\"").append(i % 2 == 0 ? "fast_straight" : "slow_straight").append("\"}");
+        }
+        json.append("]}");
+
+        try {
+            Path path = Files.createTempFile("invaders-bench-" + enemies + "-", ".json");
+            path.toFile().deleteOnExit();
+            Files.write(path, json.toString().getBytes(StandardCharsets.UTF_8));
+            return path;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package invaders.engine;
+
+import invaders.physics.BruteForceBroadphase;
+import invaders.physics.SpatialHashBroadphase;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the collision pass alone, for each broadphase.
+ *
+ * The engine is advanced until enemy shots are in flight, with the player still alive
+ * so the swept tests apply. The pass is run once in setup to settle the hits of that
+ * state, so every measured pass finds and tests the same pairs but applies no damage:
+ * this measures the broadphase and the pair tests. The damage and points of fresh
+ * hits are measured with the rest of the tick by EngineTickBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int enemies;
+
+    @Param({"spatial", "bruteforce"})
+    public String broadphase;
+
+    private GameEngine engine;
+
+    // the player survives at least 160 ticks at every size, see EngineTickBenchmark
+    private static final int WARMUP_TICKS = 120;
+
+    @Setup(Level.Trial)
+    public void createEngine() {
+        engine = new GameEngine(BenchmarkConfigs.write(enemies).toString(), BenchmarkConfigs.SEED);
+        new FixedStepDriver(engine).step(WARMUP_TICKS);
+        if (!engine.getPlayer().isAlive()) {
+            throw new IllegalStateException("Player died within " + WARMUP_TICKS + " ticks");
+        }
+
+        if (broadphase.equals("bruteforce")) {
+            engine.setBroadphase(new BruteForceBroadphase());
+        } else {
+            engine.setBroadphase(new SpatialHashBroadphase(engine.getGameWidth(), engine.getGameHeight(), 32));
+        }
+        engine.resolveCollisions();
+    }
+
+    @Benchmark
+    public GameEngine collisions() {
+        engine.resolveCollisions();
+        return engine;
+    }
+}
@@ -0,0 +1,53 @@
+package invaders.engine;
+
+import invaders.ConfigReader;
+import invaders.GameConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one GameEngine.update() at increasing enemy counts.
+ *
+ * Each invocation runs a fixed batch of ticks on a fresh world, short enough that
+ * the player is still alive at its end; once the player dies the world stops moving
+ * and ticks would no longer measure the game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineTickBenchmark {
+    // the player survives at least 160 ticks from a fresh world at every size
+    private static final int TICKS = 100;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int enemies;
+
+    private GameConfig config;
+    private GameEngine engine;
+
+    @Setup(Level.Trial)
+    public void parseConfig() {
+        config = ConfigReader.parse(BenchmarkConfigs.write(enemies).toString());
+    }
+
+    @Setup(Level.Invocation)
+    public void createEngine() {
+        engine = new GameEngine(config, BenchmarkConfigs.SEED);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public GameEngine tick() {
+        for (int i = 0; i < TICKS; i++) {
+            engine.update();
+        }
+        if (!engine.getPlayer().isAlive()) {
+            throw new IllegalStateException("Player died within " + TICKS + " ticks");
+        }
+        return engine;
+    }
+}
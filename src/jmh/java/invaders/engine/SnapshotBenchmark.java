@@ -0,0 +1,88 @@
+package invaders.engine;
+
+import invaders.gameobject.Bunker;
+import invaders.gameobject.Enemy;
+import invaders.memento.GameEngineMemento;
+import invaders.memento.MementoCodec;
+import invaders.memento.Snapshot;
+import invaders.prototype.Prototype;
+import invaders.rendering.Renderable;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of memento save/restore, of the codec they run through, and of prototype copies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int enemies;
+
+    private GameEngine engine;
+    private GameEngineMemento memento;
+    private Snapshot snapshot;
+    private ByteBuffer buffer;
+    private Enemy enemy;
+    private Bunker bunker;
+
+    @Setup(Level.Trial)
+    public void createEngine() {
+        engine = new GameEngine(BenchmarkConfigs.write(enemies).toString(), BenchmarkConfigs.SEED);
+        new FixedStepDriver(engine).step(120);
+        memento = engine.save();
+        snapshot = MementoCodec.decode(memento.getState());
+        buffer = ByteBuffer.allocate(MementoCodec.maxSize(snapshot));
+
+        for (Renderable ro : engine.getRenderables()) {
+            if (enemy == null && ro instanceof Enemy) {
+                enemy = (Enemy) ro;
+            }
+            if (bunker == null && ro instanceof Bunker) {
+                bunker = (Bunker) ro;
+            }
+        }
+    }
+
+    // nothing changes between invocations, so after the first keyframe this is the empty delta; encode is the keyframe cost
+    @Benchmark
+    public GameEngineMemento save() {
+        return engine.save();
+    }
+
+    // one tick flushes the pending removals restore queues, so the world does not grow
+    @Benchmark
+    public GameEngine restore() {
+        engine.restore(memento);
+        engine.update();
+        return engine;
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        buffer.clear();
+        MementoCodec.encode(snapshot, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Snapshot decode() {
+        return MementoCodec.decode(memento.getState());
+    }
+
+    @Benchmark
+    public Prototype enemyCopy() {
+        return enemy.copy();
+    }
+
+    @Benchmark
+    public Prototype bunkerCopy() {
+        return bunker.copy();
+    }
+}
@@ -1,30 +1,165 @@
 package invaders;
 
+import invaders.profiling.PhaseProfiler;
+import invaders.rendering.RenderMode;
+import invaders.rendering.SpriteCache;
 import invaders.singleton.Level;
 import invaders.singleton.Singleton;
+import invaders.telemetry.RotatingFileSink;
+import invaders.telemetry.TelemetryFormat;
+import invaders.telemetry.TelemetryObserver;
 import javafx.application.Application;
 import javafx.geometry.Side;
 import javafx.scene.control.Button;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.MenuItem;
 import javafx.stage.Stage;
+import invaders.engine.FixedStepDriver;
 import invaders.engine.GameEngine;
+import invaders.engine.BatchReport;
+import invaders.engine.BatchSimulator;
 import invaders.engine.GameWindow;
+import invaders.engine.PlayerPolicy;
+import invaders.engine.ReplayPlayer;
+import invaders.engine.ReplayRecorder;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
 import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
 
 public class App extends Application {
+    // -Dinvaders.record=<file> records the match for --replay
+    private static final String RECORD_PROPERTY = "invaders.record";
+    // -Dinvaders.render=canvas draws every entity onto one canvas, see RenderMode
+    private static final String RENDER_PROPERTY = "invaders.render";
+    // -Dinvaders.profile=<file> times every tick and frame and writes the phases as CSV on exit
+    private static final String PROFILE_PROPERTY = "invaders.profile";
+    // -Dinvaders.telemetry=<dir> streams the stats of every tick to rotating files in the directory
+    private static final String TELEMETRY_PROPERTY = "invaders.telemetry";
+    // -Dinvaders.telemetry.format=binary writes fixed-width records instead of NDJSON
+    private static final String TELEMETRY_FORMAT_PROPERTY = "invaders.telemetry.format";
+
     private Level level;
+    private GameWindow window;
+    private TelemetryObserver telemetry;
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--headless")) {
+            runHeadless(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args);
+            return;
+        }
+        if (args.length > 1 && args[0].equals("--replay")) {
+            runReplay(args);
+            return;
+        }
         launch(args);
     }
 
+    /**
+     * Simulates a level without a display:
+     * --headless [config] [ticks]
+     */
+    private static void runHeadless(String[] args) {
+        String config = args.length > 1 ? args[1] : "src/main/resources/config_easy.json";
+        long ticks = args.length > 2 ? Long.parseLong(args[2]) : 10_000;
+
+        SpriteCache.preload();
+        long loadStart = System.nanoTime();
+        GameEngine model = GameEngine.load(Paths.get(config), new SplittableRandom().nextLong());
+        System.out.printf("Loaded %d entities in %.1f ms%n", model.getRenderables().size(), (System.nanoTime() - loadStart) / 1e6);
+        FixedStepDriver driver = new FixedStepDriver(model);
+        if (System.getProperty(PROFILE_PROPERTY) != null) {
+            model.setProfiler(new PhaseProfiler());
+        }
+        TelemetryObserver telemetry = openTelemetry(() -> model);
+        if (telemetry != null) {
+            model.attach(telemetry);
+        }
+
+        long start = System.nanoTime();
+        driver.step(ticks);
+        long elapsed = System.nanoTime() - start;
+        writeProfile(model.getProfiler());
+        closeTelemetry(telemetry);
+
+        System.out.printf("Simulated %d ticks in %.1f ms (%.1fx real time), score %d, lives %d%n",
+                driver.getTick(), elapsed / 1e6,
+                (double) ticks * FixedStepDriver.STEP_NANOS / Math.max(1, elapsed),
+                model.getPoints(), (int) model.getLives());
+    }
+
+    /**
+     * Simulates many worlds of a level in parallel with a scripted player and prints the aggregate:
+     * --batch [config] [worlds] [ticks] [threads]
+     */
+    private static void runBatch(String[] args) {
+        String config = args.length > 1 ? args[1] : "src/main/resources/config_easy.json";
+        int worlds = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        long ticks = args.length > 3 ? Long.parseLong(args[3]) : 20_000;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        SpriteCache.preload();
+        BatchSimulator simulator = new BatchSimulator(config, PlayerPolicy.tracker(), ticks);
+        BatchReport report = simulator.run(worlds, 1L, threads);
+        System.out.println(report);
+    }
+
+    /**
+     * Re-simulates a recorded match without a display:
+     * --replay <replay file> [config of the last level, if it moved]
+     */
+    private static void runReplay(String[] args) {
+        ReplayPlayer replay;
+        try {
+            replay = ReplayPlayer.read(Paths.get(args[1]));
+        } catch (IOException e) {
+            System.err.println("Cannot read replay " + args[1] + ": " + e.getMessage());
+            return;
+        }
+
+        SpriteCache.preload();
+        long start = System.nanoTime();
+        GameEngine model;
+        try {
+            model = args.length > 2 ? replay.play(args[2]) : replay.play();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Cannot replay " + args[1] + ": " + e.getMessage());
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("Replayed %d ticks over %d level(s), last seed %d, in %.1f ms (%.1fx real time), score %d, lives %d, time %d%n",
+                replay.getTicks(), replay.getLevels(), replay.getSeed(), elapsed / 1e6,
+                (double) replay.getTicks() * FixedStepDriver.STEP_NANOS / Math.max(1, elapsed),
+                model.getPoints(), (int) model.getLives(), model.getTimer());
+    }
+
     @Override
     public void start(Stage primaryStage) {
-        GameEngine model = new GameEngine("src/main/resources/config_easy.json");
-        GameWindow window = new GameWindow(model, Level.EASY);
-        window.run();
+        SpriteCache.preload();
+        String config = "src/main/resources/config_easy.json";
+        GameEngine model = new GameEngine(config);
+        RenderMode renderMode = enumProperty(RENDER_PROPERTY, RenderMode.NODES);
+        window = new GameWindow(model, Level.EASY, renderMode);
+        if (System.getProperty(RECORD_PROPERTY) != null) {
+            model.setRecorder(new ReplayRecorder(config, model.getSeed(), model.getFireRate()));
+        }
+        if (System.getProperty(PROFILE_PROPERTY) != null) {
+            window.setProfiler(new PhaseProfiler());
+        }
+        telemetry = openTelemetry(window::getModel);
+        if (telemetry != null) {
+            window.attachObserver(telemetry);
+        }
 
         primaryStage.setTitle("Space Invaders");
         primaryStage.setScene(window.getScene());
@@ -32,4 +167,91 @@ public class App extends Application {
 
         window.run();
     }
+
+    @Override
+    public void stop() {
+        if (window == null) {
+            return;
+        }
+        writeProfile(window.getProfiler());
+        closeTelemetry(telemetry);
+
+        String recordPath = System.getProperty(RECORD_PROPERTY);
+        if (recordPath == null || window.getModel().getRecorder() == null) {
+            return;
+        }
+        Path path = Paths.get(recordPath);
+        try {
+            window.getModel().getRecorder().write(path);
+        } catch (IOException e) {
+            System.err.println("Cannot write replay " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Start streaming telemetry if the property names a directory, else return null
+     */
+    private static TelemetryObserver openTelemetry(Supplier<GameEngine> engine) {
+        String directory = System.getProperty(TELEMETRY_PROPERTY);
+        if (directory == null) {
+            return null;
+        }
+        TelemetryFormat format = enumProperty(TELEMETRY_FORMAT_PROPERTY, TelemetryFormat.NDJSON);
+        try {
+            RotatingFileSink sink = new RotatingFileSink(Paths.get(directory), "telemetry", format, TelemetryObserver.FIELDS);
+            return new TelemetryObserver(engine, sink);
+        } catch (IOException e) {
+            System.err.println("Cannot write telemetry to " + directory + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void closeTelemetry(TelemetryObserver telemetry) {
+        if (telemetry == null) {
+            return;
+        }
+        try {
+            telemetry.close();
+        } catch (IOException e) {
+            System.err.println("Cannot write telemetry: " + e.getMessage());
+        }
+        System.out.printf("Telemetry: %d records written, %d dropped%n", telemetry.getWritten(), telemetry.getDropped());
+    }
+
+    /**
+     * Read an enum constant named by a property, case-insensitively; an unknown name
+     * prints the valid ones and falls back to the default rather than stopping the game
+     */
+    private static <E extends Enum<E>> E enumProperty(String property, E fallback) {
+        String value = System.getProperty(property);
+        if (value == null) {
+            return fallback;
+        }
+        E[] constants = fallback.getDeclaringClass().getEnumConstants();
+        for (E constant : constants) {
+            if (constant.name().equalsIgnoreCase(value)) {
+                return constant;
+            }
+        }
+        StringJoiner names = new StringJoiner(", ");
+        for (E constant : constants) {
+            names.add(constant.name().toLowerCase(Locale.ROOT));
+        }
+        System.err.println("Unknown -D" + property + "=" + value + ", expected one of " + names
+                + "; using " + fallback.name().toLowerCase(Locale.ROOT));
+        return fallback;
+    }
+
+    private static void writeProfile(PhaseProfiler profiler) {
+        String profilePath = System.getProperty(PROFILE_PROPERTY);
+        if (profilePath == null || !profiler.isEnabled()) {
+            return;
+        }
+        Path path = Paths.get(profilePath);
+        try {
+            profiler.writeCsv(path);
+        } catch (IOException e) {
+            System.err.println("Cannot write profile " + path + ": " + e.getMessage());
+        }
+    }
 }
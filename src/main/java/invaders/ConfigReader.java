@@ -1,60 +1,91 @@
 package invaders;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
+import invaders.profiling.ConfigLoadEvent;
 
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
-import java.sql.Statement;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class ConfigReader {
-    private static JSONObject gameInfo;
-    private static JSONObject playerInfo;
-    private static JSONArray bunkersInfo;
-    private static JSONArray enemiesInfo;
+/**
+ * Reads level configs into validated GameConfig records.
+ *
+ * Parsed configs are cached by path and modification time, so switching back to a
+ * level does not read its file again unless it was edited in between.
+ */
+public final class ConfigReader {
+    private static final Map<Path, CachedConfig> cache = new ConcurrentHashMap<>();
 
+    private ConfigReader() {}
 
-    public static void parse(String configPath){
-        JSONParser parser = new JSONParser();
+    /**
+     * Get the config at the path, parsing it only if it is not cached or the file changed
+     */
+    public static GameConfig parse(String configPath) {
+        Path path = Paths.get(configPath).toAbsolutePath().normalize();
+        FileTime modified;
         try {
-            JSONObject configObject = (JSONObject) parser.parse(new FileReader(configPath));
-
-            // Reading game section
-            gameInfo = (JSONObject) configObject.get("Game");
-
-	        // Reading player section
-            playerInfo = (JSONObject) configObject.get("Player");
-
-			// Reading bunker section
-            bunkersInfo = (JSONArray) configObject.get("Bunkers");
-
-            // Reading enemies section
-            enemiesInfo = (JSONArray) configObject.get("Enemies");
-        } catch (FileNotFoundException e) {
-			e.printStackTrace();
-		} catch (IOException e) {
-			e.printStackTrace();
-		} catch (ParseException e) {
-			e.printStackTrace();
-		}
-    }
+            modified = Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Config not found: " + configPath, e);
+        }
 
-    public static JSONObject getGameInfo() {
-        return gameInfo;
+        ConfigLoadEvent event = new ConfigLoadEvent();
+        event.begin();
+        CachedConfig previous = cache.get(path);
+        CachedConfig loaded = cache.compute(path, (key, cached) ->
+                cached != null && cached.modified().equals(modified) ? cached : new CachedConfig(modified, read(key))
+        );
+        if (event.shouldCommit()) {
+            event.path = path.toString();
+            event.source = loaded == previous ? ConfigLoadEvent.CACHED : ConfigLoadEvent.PARSED;
+            event.enemies = loaded.config().enemies().size();
+            event.bunkers = loaded.config().bunkers().size();
+            event.commit();
+        }
+        return loaded.config();
     }
 
-    public static JSONObject getPlayerInfo() {
-        return playerInfo;
+    /**
+     * Parse and validate the config at the path, bypassing the cache
+     */
+    public static GameConfig read(Path path) {
+        CollectingHandler collected = new CollectingHandler();
+        LevelReader.read(path, collected);
+        return new GameConfig(collected.size, collected.player, collected.bunkers, collected.enemies);
     }
 
-    public static JSONArray getBunkersInfo() {
-        return bunkersInfo;
-    }
+    private record CachedConfig(FileTime modified, GameConfig config) {}
+
+    private static final class CollectingHandler implements LevelHandler {
+        private GameConfig.Size size;
+        private GameConfig.PlayerConfig player;
+        private final List<GameConfig.BunkerConfig> bunkers = new ArrayList<>();
+        private final List<GameConfig.EnemyConfig> enemies = new ArrayList<>();
+
+        @Override
+        public void size(GameConfig.Size size) {
+            this.size = size;
+        }
+
+        @Override
+        public void player(GameConfig.PlayerConfig player) {
+            this.player = player;
+        }
+
+        @Override
+        public void bunker(GameConfig.BunkerConfig bunker) {
+            bunkers.add(bunker);
+        }
 
-    public static JSONArray getEnemiesInfo() {
-        return enemiesInfo;
+        @Override
+        public void enemy(GameConfig.EnemyConfig enemy) {
+            enemies.add(enemy);
+        }
     }
-}
\ No newline at end of file
+}
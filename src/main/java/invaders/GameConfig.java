@@ -0,0 +1,30 @@
+package invaders;
+
+import java.util.List;
+
+/**
+ * A validated level config.
+ *
+ * Immutable, so one instance is shared by every engine built from the same file,
+ * on any thread.
+ */
+public record GameConfig(Size size, PlayerConfig player, List<BunkerConfig> bunkers, List<EnemyConfig> enemies) {
+
+    public GameConfig {
+        bunkers = List.copyOf(bunkers);
+        enemies = List.copyOf(enemies);
+    }
+
+    public record Position(int x, int y) {}
+
+    public record Size(int width, int height) {}
+
+    public record PlayerConfig(Position position, int lives, int speed) {}
+
+    public record BunkerConfig(Position position, Size size) {}
+
+    /**
+     * @param projectile "fast_straight" or "slow_straight"
+     */
+    public record EnemyConfig(Position position, String projectile) {}
+}
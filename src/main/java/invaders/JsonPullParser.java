@@ -0,0 +1,467 @@
+package invaders;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * A pull parser for JSON read from a channel through one fixed buffer.
+ *
+ * The caller walks the document token by token, so nothing is kept of the parts
+ * already read and memory stays flat however large the file is. Integers are
+ * returned as primitives, never boxed.
+ */
+public final class JsonPullParser implements Closeable {
+
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // what the parser expects next within the innermost container
+    private static final byte DOCUMENT_START = 0;
+    private static final byte DOCUMENT_END = 1;
+    private static final byte OBJECT_FIRST = 2;
+    private static final byte OBJECT_NAME = 3;
+    private static final byte OBJECT_VALUE = 4;
+    private static final byte OBJECT_NEXT = 5;
+    private static final byte ARRAY_FIRST = 6;
+    private static final byte ARRAY_VALUE = 7;
+    private static final byte ARRAY_NEXT = 8;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final StringBuilder text = new StringBuilder();
+    private long offset = 0;
+
+    private byte[] stack = new byte[32];
+    private int depth = 1;
+    private Token peeked = null;
+
+    public JsonPullParser(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer.limit(0);
+        this.stack[0] = DOCUMENT_START;
+    }
+
+    /**
+     * Get the type of the next token without consuming it
+     */
+    public Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+
+        int c;
+        switch (stack[depth - 1]) {
+            case DOCUMENT_END:
+                if (skipWhitespace() != -1) {
+                    throw error("Trailing data after the document");
+                }
+                return peeked = Token.END_DOCUMENT;
+            case OBJECT_FIRST:
+                c = skipWhitespace();
+                if (c == '}') {
+                    return peeked = Token.END_OBJECT;
+                }
+                if (c != '"') {
+                    throw error("Expected a name");
+                }
+                return peeked = Token.NAME;
+            case OBJECT_NEXT:
+                c = skipWhitespace();
+                if (c == '}') {
+                    return peeked = Token.END_OBJECT;
+                }
+                expect(',');
+                stack[depth - 1] = OBJECT_NAME;
+                // fall through
+            case OBJECT_NAME:
+                if (skipWhitespace() != '"') {
+                    throw error("Expected a name");
+                }
+                return peeked = Token.NAME;
+            case ARRAY_FIRST:
+                if (skipWhitespace() == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+                return peeked = peekValue();
+            case ARRAY_NEXT:
+                c = skipWhitespace();
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+                expect(',');
+                stack[depth - 1] = ARRAY_VALUE;
+                return peeked = peekValue();
+            default:
+                return peeked = peekValue();
+        }
+    }
+
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    public void beginObject() throws IOException {
+        consume(Token.BEGIN_OBJECT);
+        expect('{');
+        push(OBJECT_FIRST);
+    }
+
+    public void endObject() throws IOException {
+        consume(Token.END_OBJECT);
+        expect('}');
+        depth--;
+        valueRead();
+    }
+
+    public void beginArray() throws IOException {
+        consume(Token.BEGIN_ARRAY);
+        expect('[');
+        push(ARRAY_FIRST);
+    }
+
+    public void endArray() throws IOException {
+        consume(Token.END_ARRAY);
+        expect(']');
+        depth--;
+        valueRead();
+    }
+
+    public String nextName() throws IOException {
+        consume(Token.NAME);
+        String name = readString();
+        if (skipWhitespace() != ':') {
+            throw error("Expected ':' after name " + name);
+        }
+        expect(':');
+        stack[depth - 1] = OBJECT_VALUE;
+        return name;
+    }
+
+    public String nextString() throws IOException {
+        consume(Token.STRING);
+        String value = readString();
+        valueRead();
+        return value;
+    }
+
+    /**
+     * Read a number that must be a whole value fitting in a long
+     */
+    public long nextLong() throws IOException {
+        consume(Token.NUMBER);
+        boolean negative = false;
+        if (peekByte() == '-') {
+            negative = true;
+            readByte();
+        }
+
+        long value = 0;
+        int digits = 0;
+        int c;
+        while ((c = peekByte()) >= '0' && c <= '9') {
+            readByte();
+            // accumulate negatively so Long.MIN_VALUE fits
+            if (value < Long.MIN_VALUE / 10) {
+                throw error("Number out of range");
+            }
+            value = value * 10 - (c - '0');
+            if (value > 0) {
+                throw error("Number out of range");
+            }
+            digits++;
+        }
+        if (digits == 0) {
+            throw error("Expected a number");
+        }
+        if (c == '.' || c == 'e' || c == 'E') {
+            throw error("Expected an integer");
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw error("Number out of range");
+            }
+            value = -value;
+        }
+        valueRead();
+        return value;
+    }
+
+    public boolean nextBoolean() throws IOException {
+        consume(Token.BOOLEAN);
+        boolean value = peekByte() == 't';
+        expectWord(value ? "true" : "false");
+        valueRead();
+        return value;
+    }
+
+    public void nextNull() throws IOException {
+        consume(Token.NULL);
+        expectWord("null");
+        valueRead();
+    }
+
+    /**
+     * Skip the next value, including everything nested in it
+     */
+    public void skipValue() throws IOException {
+        int skipDepth = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    skipDepth++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    skipDepth++;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    skipDepth--;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    skipDepth--;
+                    break;
+                case NAME:
+                    nextName();
+                    break;
+                case STRING:
+                    nextString();
+                    break;
+                case NUMBER:
+                    skipNumber();
+                    break;
+                case BOOLEAN:
+                    nextBoolean();
+                    break;
+                case NULL:
+                    nextNull();
+                    break;
+                default:
+                    throw error("Unexpected end of document");
+            }
+        } while (skipDepth > 0);
+    }
+
+    /**
+     * Byte offset of the next unread byte, for error messages
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Token peekValue() throws IOException {
+        int c = skipWhitespace();
+        switch (c) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                return Token.STRING;
+            case 't':
+            case 'f':
+                return Token.BOOLEAN;
+            case 'n':
+                return Token.NULL;
+            case -1:
+                throw error("Unexpected end of document");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return Token.NUMBER;
+                }
+                throw error("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private void consume(Token expected) throws IOException {
+        Token token = peek();
+        if (token != expected) {
+            throw error("Expected " + expected + " but was " + token);
+        }
+        peeked = null;
+    }
+
+    private void valueRead() {
+        switch (stack[depth - 1]) {
+            case OBJECT_VALUE:
+                stack[depth - 1] = OBJECT_NEXT;
+                break;
+            case DOCUMENT_START:
+                stack[depth - 1] = DOCUMENT_END;
+                break;
+            default:
+                stack[depth - 1] = ARRAY_NEXT;
+                break;
+        }
+    }
+
+    private void push(byte state) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = state;
+    }
+
+    private void skipNumber() throws IOException {
+        consume(Token.NUMBER);
+        int c;
+        while ((c = peekByte()) == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')) {
+            readByte();
+        }
+        valueRead();
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        while (true) {
+            int c = readByte();
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c == -1) {
+                throw error("Unterminated string");
+            }
+            if (c == '\\') {
+                readEscape();
+            } else if (c < 0x80) {
+                text.append((char) c);
+            } else {
+                readUtf8(c);
+            }
+        }
+    }
+
+    private void readEscape() throws IOException {
+        int c = readByte();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                text.append((char) c);
+                break;
+            case 'b':
+                text.append('\b');
+                break;
+            case 'f':
+                text.append('\f');
+                break;
+            case 'n':
+                text.append('\n');
+                break;
+            case 'r':
+                text.append('\r');
+                break;
+            case 't':
+                text.append('\t');
+                break;
+            case 'u':
+                int unit = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(readByte(), 16);
+                    if (digit < 0) {
+                        throw error("Malformed \\u escape");
+                    }
+                    unit = (unit << 4) | digit;
+                }
+                text.append((char) unit);
+                break;
+            default:
+                throw error("Malformed escape");
+        }
+    }
+
+    private void readUtf8(int lead) throws IOException {
+        int extra;
+        int codePoint;
+        if ((lead & 0xE0) == 0xC0) {
+            extra = 1;
+            codePoint = lead & 0x1F;
+        } else if ((lead & 0xF0) == 0xE0) {
+            extra = 2;
+            codePoint = lead & 0x0F;
+        } else if ((lead & 0xF8) == 0xF0) {
+            extra = 3;
+            codePoint = lead & 0x07;
+        } else {
+            throw error("Malformed UTF-8");
+        }
+        for (int i = 0; i < extra; i++) {
+            int c = readByte();
+            if ((c & 0xC0) != 0x80) {
+                throw error("Malformed UTF-8");
+            }
+            codePoint = (codePoint << 6) | (c & 0x3F);
+        }
+        text.appendCodePoint(codePoint);
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = readByte();
+        if (c != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private void expectWord(String word) throws IOException {
+        for (int i = 0; i < word.length(); i++) {
+            if (readByte() != word.charAt(i)) {
+                throw error("Expected " + word);
+            }
+        }
+    }
+
+    /**
+     * Skip whitespace and return the next byte without consuming it, or -1 at the end
+     */
+    private int skipWhitespace() throws IOException {
+        int c;
+        while ((c = peekByte()) == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            readByte();
+        }
+        return c;
+    }
+
+    private int peekByte() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    private int readByte() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        offset++;
+        return buffer.get() & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        return read > 0;
+    }
+
+    private IOException error(String message) {
+        return new IOException(message + " at byte " + offset);
+    }
+}
@@ -0,0 +1,15 @@
+package invaders;
+
+/**
+ * Receives the parts of a level config in file order, as LevelReader parses them.
+ */
+public interface LevelHandler {
+
+    void size(GameConfig.Size size);
+
+    void player(GameConfig.PlayerConfig player);
+
+    void bunker(GameConfig.BunkerConfig bunker);
+
+    void enemy(GameConfig.EnemyConfig enemy);
+}
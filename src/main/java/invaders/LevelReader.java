@@ -0,0 +1,275 @@
+package invaders;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams a level config to a LevelHandler, validating each part as it is read.
+ *
+ * Bunkers and enemies are handed over one at a time and not kept, so reading a
+ * level of any size needs the same small amount of memory.
+ */
+public final class LevelReader {
+
+    private LevelReader() {}
+
+    /**
+     * Read the level at the path into the handler
+     * @throws IllegalArgumentException if the file cannot be read or is not a valid level
+     */
+    public static void read(Path path, LevelHandler handler) {
+        try (JsonPullParser parser = new JsonPullParser(FileChannel.open(path, StandardOpenOption.READ))) {
+            read(parser, handler);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read config " + path + ": " + e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid config " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void read(JsonPullParser parser, LevelHandler handler) throws IOException {
+        boolean game = false;
+        boolean player = false;
+        boolean bunkers = false;
+        boolean enemies = false;
+
+        parser.beginObject();
+        while (parser.hasNext()) {
+            switch (parser.nextName()) {
+                // Reading game section
+                case "Game":
+                    once(game, "Game");
+                    handler.size(readGame(parser));
+                    game = true;
+                    break;
+
+                // Reading player section
+                case "Player":
+                    once(player, "Player");
+                    handler.player(readPlayer(parser));
+                    player = true;
+                    break;
+
+                // Reading bunker section
+                case "Bunkers":
+                    once(bunkers, "Bunkers");
+                    parser.beginArray();
+                    for (int i = 0; parser.hasNext(); i++) {
+                        handler.bunker(readBunker(parser, "Bunkers[" + i + "]"));
+                    }
+                    parser.endArray();
+                    bunkers = true;
+                    break;
+
+                // Reading enemies section
+                case "Enemies":
+                    once(enemies, "Enemies");
+                    parser.beginArray();
+                    for (int i = 0; parser.hasNext(); i++) {
+                        handler.enemy(readEnemy(parser, "Enemies[" + i + "]"));
+                    }
+                    parser.endArray();
+                    enemies = true;
+                    break;
+
+                default:
+                    parser.skipValue();
+            }
+        }
+        parser.endObject();
+        parser.peek();
+
+        require(game, "Game");
+        require(player, "Player");
+        require(bunkers, "Bunkers");
+        require(enemies, "Enemies");
+    }
+
+    private static GameConfig.Size readGame(JsonPullParser parser) throws IOException {
+        GameConfig.Size size = null;
+        parser.beginObject();
+        while (parser.hasNext()) {
+            if (parser.nextName().equals("size")) {
+                size = readSize(parser, "Game.size");
+            } else {
+                parser.skipValue();
+            }
+        }
+        parser.endObject();
+        require(size != null, "Game.size");
+        return size;
+    }
+
+    private static GameConfig.PlayerConfig readPlayer(JsonPullParser parser) throws IOException {
+        GameConfig.Position position = null;
+        int lives = 0;
+        int speed = 0;
+        parser.beginObject();
+        while (parser.hasNext()) {
+            switch (parser.nextName()) {
+                case "position":
+                    position = readPosition(parser, "Player.position");
+                    break;
+                case "lives":
+                    lives = readPositive(parser, "Player.lives");
+                    break;
+                case "speed":
+                    speed = readPositive(parser, "Player.speed");
+                    break;
+                default:
+                    parser.skipValue();
+            }
+        }
+        parser.endObject();
+        require(position != null, "Player.position");
+        require(lives != 0, "Player.lives");
+        require(speed != 0, "Player.speed");
+        return new GameConfig.PlayerConfig(position, lives, speed);
+    }
+
+    private static GameConfig.BunkerConfig readBunker(JsonPullParser parser, String name) throws IOException {
+        GameConfig.Position position = null;
+        GameConfig.Size size = null;
+        parser.beginObject();
+        while (parser.hasNext()) {
+            switch (parser.nextName()) {
+                case "position":
+                    position = readPosition(parser, name + ".position");
+                    break;
+                case "size":
+                    size = readSize(parser, name + ".size");
+                    break;
+                default:
+                    parser.skipValue();
+            }
+        }
+        parser.endObject();
+        require(position != null, name + ".position");
+        require(size != null, name + ".size");
+        return new GameConfig.BunkerConfig(position, size);
+    }
+
+    private static GameConfig.EnemyConfig readEnemy(JsonPullParser parser, String name) throws IOException {
+        GameConfig.Position position = null;
+        String projectile = null;
+        parser.beginObject();
+        while (parser.hasNext()) {
+            switch (parser.nextName()) {
+                case "position":
+                    position = readPosition(parser, name + ".position");
+                    break;
+                case "projectile":
+                    projectile = readProjectile(parser, name + ".projectile");
+                    break;
+                default:
+                    parser.skipValue();
+            }
+        }
+        parser.endObject();
+        require(position != null, name + ".position");
+        require(projectile != null, name + ".projectile");
+        return new GameConfig.EnemyConfig(position, projectile);
+    }
+
+    private static String readProjectile(JsonPullParser parser, String name) throws IOException {
+        if (parser.peek() != JsonPullParser.Token.STRING) {
+            throw new IllegalArgumentException(name + " must be a string");
+        }
+        // return the shared constants so a large level holds no per-enemy strings
+        String projectile = parser.nextString();
+        if (projectile.equals("fast_straight")) {
+            return "fast_straight";
+        }
+        if (projectile.equals("slow_straight")) {
+            return "slow_straight";
+        }
+        throw new IllegalArgumentException(name + " must be fast_straight or slow_straight, was " + projectile);
+    }
+
+    private static GameConfig.Position readPosition(JsonPullParser parser, String name) throws IOException {
+        int x = 0;
+        int y = 0;
+        boolean hasX = false;
+        boolean hasY = false;
+        parser.beginObject();
+        while (parser.hasNext()) {
+            switch (parser.nextName()) {
+                case "x":
+                    x = readInt(parser, name + ".x");
+                    hasX = true;
+                    break;
+                case "y":
+                    y = readInt(parser, name + ".y");
+                    hasY = true;
+                    break;
+                default:
+                    parser.skipValue();
+            }
+        }
+        parser.endObject();
+        require(hasX, name + ".x");
+        require(hasY, name + ".y");
+        return new GameConfig.Position(x, y);
+    }
+
+    private static GameConfig.Size readSize(JsonPullParser parser, String name) throws IOException {
+        int width = 0;
+        int height = 0;
+        parser.beginObject();
+        while (parser.hasNext()) {
+            switch (parser.nextName()) {
+                case "x":
+                    width = readPositive(parser, name + ".x");
+                    break;
+                case "y":
+                    height = readPositive(parser, name + ".y");
+                    break;
+                default:
+                    parser.skipValue();
+            }
+        }
+        parser.endObject();
+        require(width != 0, name + ".x");
+        require(height != 0, name + ".y");
+        return new GameConfig.Size(width, height);
+    }
+
+    private static int readInt(JsonPullParser parser, String name) throws IOException {
+        if (parser.peek() != JsonPullParser.Token.NUMBER) {
+            throw new IllegalArgumentException(name + " must be an integer");
+        }
+        long value;
+        try {
+            value = parser.nextLong();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(name + " must be an integer: " + e.getMessage());
+        }
+        if (value != (int) value) {
+            throw new IllegalArgumentException(name + " must be an integer, was " + value);
+        }
+        return (int) value;
+    }
+
+    private static int readPositive(JsonPullParser parser, String name) throws IOException {
+        int value = readInt(parser, name);
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive, was " + value);
+        }
+        return value;
+    }
+
+    private static void require(boolean present, String name) {
+        if (!present) {
+            throw new IllegalArgumentException(name + " is missing");
+        }
+    }
+
+    // a repeated section would reach the handler twice, e.g. a second player
+    private static void once(boolean seen, String name) {
+        if (seen) {
+            throw new IllegalArgumentException(name + " appears more than once");
+        }
+    }
+}
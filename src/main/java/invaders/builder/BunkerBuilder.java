@@ -1,13 +1,11 @@
 package invaders.builder;
 
-import invaders.ConfigReader;
 import invaders.gameobject.Bunker;
 import invaders.gameobject.GameObject;
 import invaders.physics.Vector2D;
 import invaders.prototype.Prototype;
 import invaders.state.BunkerState;
 import javafx.scene.image.Image;
-import org.json.simple.JSONObject;
 
 public class BunkerBuilder extends Builder {
     private Bunker bunker;
@@ -1,36 +1,33 @@
 package invaders.builder;
 
-import invaders.ConfigReader;
+import invaders.GameConfig;
 import invaders.engine.GameEngine;
 import invaders.gameobject.Bunker;
 import invaders.gameobject.Enemy;
 import invaders.gameobject.GameObject;
 import invaders.physics.Vector2D;
-import javafx.scene.image.Image;
-import org.json.simple.JSONObject;
-
-import java.io.File;
+import invaders.rendering.SpriteCache;
 
 public class Director {
 
-    public Bunker constructBunker(BunkerBuilder builder, JSONObject eachBunkerInfo){
-        int x = ((Long)((JSONObject)eachBunkerInfo.get("position")).get("x")).intValue();
-        int y = ((Long)((JSONObject)eachBunkerInfo.get("position")).get("y")).intValue();
-        int width = ((Long)((JSONObject)eachBunkerInfo.get("size")).get("x")).intValue();
-        int height = ((Long)((JSONObject)eachBunkerInfo.get("size")).get("y")).intValue();
+    public Bunker constructBunker(BunkerBuilder builder, GameConfig.BunkerConfig eachBunkerInfo){
+        int x = eachBunkerInfo.position().x();
+        int y = eachBunkerInfo.position().y();
+        int width = eachBunkerInfo.size().width();
+        int height = eachBunkerInfo.size().height();
 
         builder.reset();
         builder.buildPosition(new Vector2D(x,y));
-        builder.buildImage(new Image(new File("src/main/resources/bunkerGreen.png").toURI().toString(), width, height, true, true));
+        builder.buildImage(SpriteCache.get("bunkerGreen.png", width, height));
         builder.buildLives(3);
 
         return (Bunker) builder.createGameObject();
     }
 
-    public Enemy constructEnemy(GameEngine engine,EnemyBuilder builder, JSONObject eachEnemyInfo){
-        int x = ((Long)((JSONObject)eachEnemyInfo.get("position")).get("x")).intValue();
-        int y = ((Long)((JSONObject)eachEnemyInfo.get("position")).get("y")).intValue();
-        String strategy = (String)(eachEnemyInfo.get("projectile"));
+    public Enemy constructEnemy(GameEngine engine,EnemyBuilder builder, GameConfig.EnemyConfig eachEnemyInfo){
+        int x = eachEnemyInfo.position().x();
+        int y = eachEnemyInfo.position().y();
+        String strategy = eachEnemyInfo.projectile();
 
         builder.reset();
         builder.buildPosition(new Vector2D(x,y));
@@ -3,11 +3,9 @@ package invaders.builder;
 import invaders.gameobject.Enemy;
 import invaders.gameobject.GameObject;
 import invaders.physics.Vector2D;
+import invaders.rendering.SpriteCache;
 import invaders.strategy.FastProjectileStrategy;
 import invaders.strategy.SlowProjectileStrategy;
-import javafx.scene.image.Image;
-
-import java.io.File;
 
 public class EnemyBuilder extends Builder{
     private Enemy enemy;
@@ -35,12 +33,12 @@ public class EnemyBuilder extends Builder{
     public void buildImageAndStrategy(String strategy){
         if(strategy.equals("fast_straight")){
             enemy.setProjectileStrategy(new FastProjectileStrategy());
-            enemy.setImage(new Image(new File("src/main/resources/fast_alien.png").toURI().toString(), 20, 20, true, true));
-            enemy.setProjectileImage(new Image(new File("src/main/resources/alien_shot_fast.png").toURI().toString(), 10, 10, true, true));
+            enemy.setImage(SpriteCache.get("fast_alien.png", 20, 20));
+            enemy.setProjectileImage(SpriteCache.get("alien_shot_fast.png", 10, 10));
         }else if(strategy.equals("slow_straight")){
             enemy.setProjectileStrategy(new SlowProjectileStrategy());
-            enemy.setImage(new Image(new File("src/main/resources/slow_alien.png").toURI().toString(), 20, 20, true, true));
-            enemy.setProjectileImage(new Image(new File("src/main/resources/alien_shot_slow.png").toURI().toString(), 10, 10, true, true));
+            enemy.setImage(SpriteCache.get("slow_alien.png", 20, 20));
+            enemy.setProjectileImage(SpriteCache.get("alien_shot_slow.png", 10, 10));
 
         }else{
             enemy.setProjectileStrategy(null);
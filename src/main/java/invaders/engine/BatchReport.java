@@ -0,0 +1,117 @@
+package invaders.engine;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Aggregated outcome of a batch of headless worlds.
+ */
+public class BatchReport {
+    private final List<WorldResult> results;
+    private final long elapsedNanos;
+
+    BatchReport(WorldResult[] results, long elapsedNanos) {
+        this.results = Collections.unmodifiableList(Arrays.asList(results));
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Results in seed order
+     */
+    public List<WorldResult> getResults() {
+        return results;
+    }
+
+    public int getWorlds() {
+        return results.size();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Share of worlds in which every enemy was killed
+     */
+    public double getClearedRate() {
+        return share(WorldResult::isCleared);
+    }
+
+    /**
+     * Share of worlds in which the player died
+     */
+    public double getDeathRate() {
+        return 1 - share(WorldResult::isPlayerAlive);
+    }
+
+    public double getMeanSurvivalSeconds() {
+        return mean(WorldResult::getSurvivalSeconds);
+    }
+
+    public double getMeanScore() {
+        return mean(WorldResult::getScore);
+    }
+
+    public double getMeanKillRate() {
+        return mean(WorldResult::getKillRate);
+    }
+
+    /**
+     * Percentile of a per-world metric, e.g. percentile(WorldResult::getScore, 0.9)
+     */
+    public double percentile(ToDoubleFunction<WorldResult> metric, double p) {
+        if (results.isEmpty()) {
+            return 0;
+        }
+        double[] values = new double[results.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = metric.applyAsDouble(results.get(i));
+        }
+        Arrays.sort(values);
+        int index = (int) Math.ceil(p * values.length) - 1;
+        return values[Math.max(0, Math.min(values.length - 1, index))];
+    }
+
+    private double mean(ToDoubleFunction<WorldResult> metric) {
+        double sum = 0;
+        for (WorldResult result : results) {
+            sum += metric.applyAsDouble(result);
+        }
+        return results.isEmpty() ? 0 : sum / results.size();
+    }
+
+    private double share(Predicate<WorldResult> condition) {
+        int count = 0;
+        for (WorldResult result : results) {
+            if (condition.test(result)) {
+                count++;
+            }
+        }
+        return results.isEmpty() ? 0 : (double) count / results.size();
+    }
+
+    @Override
+    public String toString() {
+        long ticks = 0;
+        for (WorldResult result : results) {
+            ticks += result.getTicks();
+        }
+        return String.format(
+                "%d worlds in %.1f ms (%.0f ticks/s)%n" +
+                "cleared %.1f%%, died %.1f%%%n" +
+                "survival s  mean %.1f  p10 %.1f  p50 %.1f  p90 %.1f%n" +
+                "score       mean %.1f  p10 %.0f  p50 %.0f  p90 %.0f%n" +
+                "kills/s     mean %.3f  p10 %.3f  p50 %.3f  p90 %.3f",
+                getWorlds(), elapsedNanos / 1e6, ticks / Math.max(1e-9, elapsedNanos / 1e9),
+                getClearedRate() * 100, getDeathRate() * 100,
+                getMeanSurvivalSeconds(), percentile(WorldResult::getSurvivalSeconds, 0.1),
+                percentile(WorldResult::getSurvivalSeconds, 0.5), percentile(WorldResult::getSurvivalSeconds, 0.9),
+                getMeanScore(), percentile(WorldResult::getScore, 0.1),
+                percentile(WorldResult::getScore, 0.5), percentile(WorldResult::getScore, 0.9),
+                getMeanKillRate(), percentile(WorldResult::getKillRate, 0.1),
+                percentile(WorldResult::getKillRate, 0.5), percentile(WorldResult::getKillRate, 0.9));
+    }
+}
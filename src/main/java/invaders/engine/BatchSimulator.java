@@ -0,0 +1,90 @@
+package invaders.engine;
+
+import invaders.ConfigReader;
+import invaders.GameConfig;
+import invaders.physics.CollisionFilter;
+import invaders.rendering.Renderable;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs many independent headless worlds of one level in parallel, for difficulty tuning.
+ *
+ * The config is parsed once and shared; every world gets its own engine and seed, so a
+ * world's result depends only on its seed and the policy, never on scheduling.
+ */
+public class BatchSimulator {
+    private final GameConfig config;
+    private final PlayerPolicy policy;
+    private final long maxTicks;
+
+    public BatchSimulator(String configPath, PlayerPolicy policy, long maxTicks) {
+        if (maxTicks <= 0) {
+            throw new IllegalArgumentException("Tick limit must be positive: " + maxTicks);
+        }
+        this.config = ConfigReader.parse(configPath);
+        this.policy = policy;
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * Run a batch on a pool of the given size
+     * @param worlds number of worlds
+     * @param baseSeed seed the world seeds are drawn from
+     * @param parallelism number of worker threads
+     */
+    public BatchReport run(int worlds, long baseSeed, int parallelism) {
+        long[] seeds = new long[worlds];
+        SplittableRandom seedSource = new SplittableRandom(baseSeed);
+        for (int i = 0; i < worlds; i++) {
+            seeds[i] = seedSource.nextLong();
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        try {
+            WorldResult[] results = pool.submit(() ->
+                    Arrays.stream(seeds).parallel().mapToObj(this::runWorld).toArray(WorldResult[]::new)
+            ).get();
+            return new BatchReport(results, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("World failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Run one world until the player dies, every enemy is dead or the tick limit is reached
+     */
+    public WorldResult runWorld(long seed) {
+        GameEngine engine = new GameEngine(config, seed);
+        int enemies = countLivingEnemies(engine);
+        int living = enemies;
+
+        for (long tick = 0; tick < maxTicks && living > 0 && engine.getPlayer().isAlive(); tick++) {
+            engine.setInput(policy.decide(engine, tick));
+            engine.update();
+            living = countLivingEnemies(engine);
+        }
+
+        return new WorldResult(seed, engine.getTimer(), engine.getPoints(), enemies - living, enemies,
+                engine.getPlayer().isAlive());
+    }
+
+    private static int countLivingEnemies(GameEngine engine) {
+        int count = 0;
+        for (Renderable ro : engine.getRenderables()) {
+            if (ro.getCollisionCategory() == CollisionFilter.ENEMY && ro.isAlive()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,113 @@
+package invaders.engine;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * List of game entities with O(1) membership and removal that keeps insertion order.
+ *
+ * Each element's slot is tracked by identity; removing an element only empties its
+ * slot. The empty slots of a batch of removals are closed in one pass, the next time
+ * the list is read, so despawning k entities in a tick costs O(k + n) once and the
+ * survivors keep their relative order. An element can be held at most once.
+ */
+class EntityList<T> extends AbstractList<T> implements RandomAccess {
+    private Object[] elements = new Object[16];
+    private int end = 0; // slots in use, including emptied ones
+    private int holes = 0; // emptied slots below end
+    private final Map<T, Integer> slots = new IdentityHashMap<>();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        compact();
+        if (index < 0 || index >= end) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + end);
+        }
+        return (T) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return end - holes;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return slots.containsKey(o);
+    }
+
+    @Override
+    public boolean add(T element) {
+        if (slots.containsKey(element)) {
+            return false;
+        }
+        compact();
+        if (end == elements.length) {
+            elements = Arrays.copyOf(elements, end * 2);
+        }
+        slots.put(element, end);
+        elements[end++] = element;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Remove by identity, leaving an empty slot until the list is next read
+     */
+    @Override
+    public boolean remove(Object o) {
+        Integer slot = slots.remove(o);
+        if (slot == null) {
+            return false;
+        }
+        elements[slot] = null;
+        holes++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public T remove(int index) {
+        T element = get(index);
+        remove(element);
+        return element;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, 0, end, null);
+        end = 0;
+        holes = 0;
+        slots.clear();
+        modCount++;
+    }
+
+    /**
+     * Close the empty slots, moving every later element down in order
+     */
+    @SuppressWarnings("unchecked")
+    private void compact() {
+        if (holes == 0) {
+            return;
+        }
+        int to = 0;
+        for (int from = 0; from < end; from++) {
+            Object element = elements[from];
+            if (element == null) {
+                continue;
+            }
+            if (from != to) {
+                elements[to] = element;
+                slots.put((T) element, to);
+            }
+            to++;
+        }
+        Arrays.fill(elements, to, end, null);
+        end = to;
+        holes = 0;
+    }
+}
@@ -0,0 +1,91 @@
+package invaders.engine;
+
+import invaders.gameobject.Enemy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * Queue of upcoming enemy shots, ordered by the tick they are due.
+ *
+ * Firing with a fixed chance every tick means the wait for the next shot is
+ * geometrically distributed, so it is drawn once per shot instead of rolled every
+ * tick for every enemy. A tick then only costs as much as the shots that fire in it.
+ * An enemy is queued at most once, while it can fire.
+ */
+class FireScheduler {
+    private final PriorityQueue<Shot> queue = new PriorityQueue<>();
+    private double chancePerTick;
+    private long sequence = 0;
+
+    FireScheduler(double chancePerTick) {
+        this.chancePerTick = chancePerTick;
+    }
+
+    /**
+     * Queue the next shot of an enemy that can fire
+     */
+    void schedule(Enemy enemy, long now, SplittableRandom random) {
+        if (!enemy.canFire() || chancePerTick <= 0) {
+            return;
+        }
+        queue.add(new Shot(now + ticksUntilShot(random), sequence++, enemy));
+    }
+
+    /**
+     * Fire every shot due by now, queueing the next shot of enemies that can still fire
+     */
+    void fireDue(GameEngine engine, long now) {
+        while (!queue.isEmpty() && queue.peek().due <= now) {
+            Enemy enemy = queue.poll().enemy;
+            // enemies killed or replaced by a restore since they were queued are dropped
+            if (enemy.canFire() && enemy.fire(engine)) {
+                schedule(enemy, now, engine.getRandom());
+            }
+        }
+    }
+
+    /**
+     * Change the chance and redraw every queued shot with it
+     */
+    void setChancePerTick(double chancePerTick, long now, SplittableRandom random) {
+        this.chancePerTick = chancePerTick;
+        List<Shot> shots = new ArrayList<>(queue);
+        shots.sort(null);
+        queue.clear();
+        for (Shot shot : shots) {
+            schedule(shot.enemy, now, random);
+        }
+    }
+
+    double getChancePerTick() {
+        return chancePerTick;
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    /**
+     * Geometric sample: number of ticks until the first success, at least 1
+     */
+    private long ticksUntilShot(SplittableRandom random) {
+        if (chancePerTick >= 1) {
+            return 1;
+        }
+        double u = 1 - random.nextDouble(); // (0, 1]
+        double ticks = Math.floor(Math.log(u) / Math.log1p(-chancePerTick));
+        return 1 + (long) Math.min(ticks, Long.MAX_VALUE / 2);
+    }
+
+    // the sequence number keeps shots due on the same tick in the order they were queued
+    private record Shot(long due, long sequence, Enemy enemy) implements Comparable<Shot> {
+        @Override
+        public int compareTo(Shot other) {
+            int byDue = Long.compare(due, other.due);
+            return byDue != 0 ? byDue : Long.compare(sequence, other.sequence);
+        }
+    }
+}
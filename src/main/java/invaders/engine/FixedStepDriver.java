@@ -0,0 +1,84 @@
+package invaders.engine;
+
+/**
+ * Advances a game engine at a fixed timestep, independent of how often it is rendered.
+ *
+ * Real time is fed into an accumulator and consumed in whole ticks; the remainder is
+ * exposed as an interpolation factor for renderers. Headless callers can step the
+ * engine directly, as fast as the CPU allows.
+ */
+public class FixedStepDriver {
+    /**
+     * Length of one simulation tick, matching the original 17ms frame
+     */
+    public static final long STEP_NANOS = 17_000_000L;
+
+    // upper bound on catch-up ticks per advance, so a stall cannot snowball
+    private static final int MAX_STEPS_PER_ADVANCE = 8;
+
+    private final GameEngine engine;
+    private final long stepNanos;
+    private long accumulator = 0;
+    private long tick = 0;
+
+    public FixedStepDriver(GameEngine engine) {
+        this(engine, STEP_NANOS);
+    }
+
+    public FixedStepDriver(GameEngine engine, long stepNanos) {
+        if (stepNanos <= 0) {
+            throw new IllegalArgumentException("Step must be positive: " + stepNanos);
+        }
+        this.engine = engine;
+        this.stepNanos = stepNanos;
+    }
+
+    /**
+     * Add elapsed real time and run every tick that has become due
+     * @return number of ticks run
+     */
+    public int advance(long elapsedNanos) {
+        accumulator += Math.max(0, elapsedNanos);
+
+        int steps = 0;
+        while (accumulator >= stepNanos) {
+            if (steps == MAX_STEPS_PER_ADVANCE) {
+                accumulator %= stepNanos;
+                break;
+            }
+            engine.update();
+            accumulator -= stepNanos;
+            tick++;
+            steps++;
+        }
+        return steps;
+    }
+
+    /**
+     * Run ticks back to back without waiting for real time (headless mode)
+     */
+    public void step(long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            engine.update();
+            tick++;
+        }
+    }
+
+    /**
+     * Fraction of the next tick already accumulated, in [0, 1)
+     */
+    public double getAlpha() {
+        return (double) accumulator / stepNanos;
+    }
+
+    /**
+     * Number of ticks simulated so far
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    public GameEngine getEngine() {
+        return engine;
+    }
+}
@@ -1,9 +1,14 @@
 package invaders.engine;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 import invaders.ConfigReader;
+import invaders.GameConfig;
+import invaders.LevelHandler;
+import invaders.LevelReader;
 import invaders.builder.BunkerBuilder;
 import invaders.builder.Director;
 import invaders.builder.EnemyBuilder;
@@ -11,35 +16,47 @@ import invaders.factory.*;
 import invaders.factory.Projectile;
 import invaders.gameobject.Bunker;
 import invaders.gameobject.Enemy;
+import invaders.gameobject.Formation;
 import invaders.gameobject.GameObject;
 import invaders.entities.Player;
 import invaders.memento.*;
 import invaders.observer.*;
+import invaders.profiling.ConfigLoadEvent;
+import invaders.profiling.DespawnEvent;
+import invaders.profiling.Phase;
+import invaders.profiling.PhaseProfiler;
+import invaders.profiling.SnapshotEvent;
+import invaders.profiling.SpawnEvent;
+import invaders.profiling.TickEvent;
+import invaders.physics.Broadphase;
+import invaders.physics.CollisionFilter;
+import invaders.physics.EntityStore;
+import invaders.physics.SpatialHashBroadphase;
 import invaders.rendering.Renderable;
 import invaders.singleton.Singleton;
 import invaders.state.RedState;
 import invaders.state.YellowState;
 import invaders.strategy.*;
-import org.json.simple.JSONObject;
 
 /**
  * This class manages the main loop and logic of the game.
  * It controls the game's state, including player actions, game objects, and scoring.
  */
 public class GameEngine implements Subject {
-	private List<GameObject> gameObjects = new ArrayList<>(); // A list of game objects that gets updated each frame
+	private List<GameObject> gameObjects = new EntityList<>(); // A list of game objects that gets updated each frame
 	private List<GameObject> pendingToAddGameObject = new ArrayList<>();
 	private List<GameObject> pendingToRemoveGameObject = new ArrayList<>();
 
 	private List<Renderable> pendingToAddRenderable = new ArrayList<>();
 	private List<Renderable> pendingToRemoveRenderable = new ArrayList<>();
 
-	private List<Renderable> renderables =  new ArrayList<>();
+	private List<Renderable> renderables =  new EntityList<>();
 
 	private Player player;
 
 	private boolean left;
 	private boolean right;
+	private int commands = 0; // InputBits commands latched until the next tick
 	private int gameWidth;
 	private int gameHeight;
 	private int timer = 45;
@@ -47,12 +64,47 @@ public class GameEngine implements Subject {
 	// Observers design pattern
 	private int gameTimer = 0;
 	private int points = 0;
-	private List<Observer> observers = new ArrayList<>();
+	private List<Subscription> observers = new ArrayList<>();
+	private GameStats published = null; // the stats observers last saw, null before the first publish
+	private List<EntityObserver> entityObservers = new ArrayList<>();
 
 	// Memento design pattern
 	private GameEngineCaretaker gameEngineCaretaker = new GameEngineCaretaker();
 	private Projectile prevShot = null;
-
+	private Formation formation;
+	private List<Bunker> levelBunkers = new ArrayList<>();
+	private final DeltaEncoder mementoEncoder = new DeltaEncoder();
+
+	// Enemy projectiles are pooled per engine
+	private EnemyProjectileFactory enemyProjectileFactory = new EnemyProjectileFactory();
+
+	// Collision broadphase
+	private static final double BROADPHASE_CELL_SIZE = 32;
+	private Broadphase broadphase;
+	private EntityStore entityStore = new EntityStore(); // owns the state of the renderables, in their order
+	private final Broadphase.PairHandler collisionHandler = this::resolveCollision;
+	private boolean worldMoved = false; // whether game objects updated this tick, so swept collision applies
+
+	// Phase timings, off unless a profiler is attached
+	private PhaseProfiler profiler = PhaseProfiler.OFF;
+
+	// Counts of the last tick, for TickEvent
+	private long tick = 0; // updates since the engine was made, only ever increases
+	private int collisionPairs = 0;
+	private int collisions = 0;
+	private int spawned = 0;
+	private int despawned = 0;
+
+	// Enemy fire, by default the original 1 in 120 chance per tick
+	public static final double DEFAULT_SHOTS_PER_SECOND = 0.49;
+	private final FireScheduler fireScheduler = new FireScheduler(chancePerTick(DEFAULT_SHOTS_PER_SECOND));
+	private double shotsPerSecond = DEFAULT_SHOTS_PER_SECOND;
+	private long worldTick = 0; // ticks in which the world moved, the clock of the fire scheduler
+
+	// Every random decision in a match is drawn from this stream, so seed + inputs replay a match exactly
+	private final long seed;
+	private final SplittableRandom random;
+	private ReplayRecorder recorder = null;
 
 
 	/**
@@ -61,106 +113,323 @@ public class GameEngine implements Subject {
 	 * Pass Json file contains the map layout of the game.
 	 */
 	public GameEngine(String config){
-		// Read the config here
-		ConfigReader.parse(config);
+		this(config, new SplittableRandom().nextLong());
+	}
 
+	/**
+	 * Constructor for GameEngine with a fixed random seed, for reproducible matches.
+	 */
+	public GameEngine(String config, long seed){
+		this(ConfigReader.parse(config), seed);
+	}
 
-		// Get game width and height
-		gameWidth = ((Long)((JSONObject) ConfigReader.getGameInfo().get("size")).get("x")).intValue();
-		gameHeight = ((Long)((JSONObject) ConfigReader.getGameInfo().get("size")).get("y")).intValue();
+	/**
+	 * Constructor for GameEngine from an already parsed config, which may be shared between engines.
+	 */
+	public GameEngine(GameConfig config, long seed){
+		this(seed);
+
+		LevelLoader loader = new LevelLoader();
+		loader.size(config.size());
+		loader.player(config.player());
+		for(GameConfig.BunkerConfig eachBunkerInfo:config.bunkers()){
+			loader.bunker(eachBunkerInfo);
+		}
+		for(GameConfig.EnemyConfig eachEnemyInfo:config.enemies()){
+			loader.enemy(eachEnemyInfo);
+		}
+		loader.finish();
+	}
 
-		//Get player info
-		this.player = new Player(ConfigReader.getPlayerInfo());
-		renderables.add(player);
+	private GameEngine(long seed){
+		this.seed = seed;
+		this.random = new SplittableRandom(seed);
+	}
 
+	/**
+	 * Builds an engine straight from a level file, constructing each bunker and enemy as it is parsed.
+	 * Nothing of the config is kept, so very large generated levels load in flat memory.
+	 */
+	public static GameEngine load(Path level, long seed){
+		ConfigLoadEvent event = new ConfigLoadEvent();
+		event.begin();
+		GameEngine engine = new GameEngine(seed);
+		LevelLoader loader = engine.new LevelLoader();
+		LevelReader.read(level, loader);
+		loader.finish();
+		if (event.shouldCommit()) {
+			event.path = level.toString();
+			event.source = ConfigLoadEvent.STREAMED;
+			event.enemies = loader.enemies.size();
+			event.bunkers = loader.bunkers;
+			event.commit();
+		}
+		return engine;
+	}
 
-		Director director = new Director();
-		BunkerBuilder bunkerBuilder = new BunkerBuilder();
-		//Get Bunkers info
-		for(Object eachBunkerInfo:ConfigReader.getBunkersInfo()){
-			Bunker bunker = director.constructBunker(bunkerBuilder, (JSONObject) eachBunkerInfo);
-			gameObjects.add(bunker);
-			renderables.add(bunker);
+	/**
+	 * Adds the parts of a level to the engine in the order they arrive.
+	 */
+	private class LevelLoader implements LevelHandler {
+		private final Director director = new Director();
+		private final BunkerBuilder bunkerBuilder = new BunkerBuilder();
+		private final EnemyBuilder enemyBuilder = new EnemyBuilder();
+		private final List<Enemy> enemies = new ArrayList<>();
+		private int bunkers = 0;
+
+		@Override
+		public void size(GameConfig.Size size) {
+			// Get game width and height
+			gameWidth = size.width();
+			gameHeight = size.height();
+			broadphase = new SpatialHashBroadphase(gameWidth, gameHeight, BROADPHASE_CELL_SIZE);
 		}
 
+		@Override
+		public void player(GameConfig.PlayerConfig playerInfo) {
+			//Get player info
+			player = new Player(playerInfo);
+			addRenderable(player);
+		}
 
-		EnemyBuilder enemyBuilder = new EnemyBuilder();
-		//Get Enemy info
-		for(Object eachEnemyInfo:ConfigReader.getEnemiesInfo()){
-			Enemy enemy = director.constructEnemy(this,enemyBuilder,(JSONObject)eachEnemyInfo);
+		@Override
+		public void bunker(GameConfig.BunkerConfig eachBunkerInfo) {
+			Bunker bunker = director.constructBunker(bunkerBuilder, eachBunkerInfo);
+			gameObjects.add(bunker);
+			addRenderable(bunker);
+			levelBunkers.add(bunker);
+			bunkers++;
+		}
+
+		@Override
+		public void enemy(GameConfig.EnemyConfig eachEnemyInfo) {
+			Enemy enemy = director.constructEnemy(GameEngine.this, enemyBuilder, eachEnemyInfo);
 			gameObjects.add(enemy);
-			renderables.add(enemy);
+			addRenderable(enemy);
+			enemies.add(enemy);
 		}
 
+		/**
+		 * Adds the formation once every enemy is in and starts their fire schedule.
+		 */
+		void finish() {
+			formation = new Formation(enemies);
+			gameObjects.add(formation);
+			for (Enemy enemy : enemies) {
+				fireScheduler.schedule(enemy, worldTick, random);
+			}
+		}
 	}
 
 	/**
-	 * Updates the game/simulation (60fps).
+	 * Updates the game/simulation by one fixed tick, see FixedStepDriver.
 	 *
-	 * It notifies all observers in observer list every call.
+	 * Observers are told once at the end of the tick, and only if the stats changed.
+	 * Pending additions and removals are applied at the end of the tick.
 	 */
 	public void update(){
+		TickEvent tickEvent = new TickEvent();
+		tickEvent.begin();
+		tick += 1;
 		timer+=1;
+		entityStore.beginTick();
+		spawned = 0;
+		despawned = 0;
 //		System.out.println("Renderables: " + renderables.size());
 //		System.out.println("GameObjects: " + gameObjects.size());
 //		System.out.println("Points: " + points);
 
+		PhaseProfiler profiler = this.profiler;
+		long tickStart = profiler.start();
+		long lap = tickStart;
 
+		applyInput();
+		lap = profiler.lap(Phase.INPUT, lap);
 
 		movePlayer();
+		lap = profiler.lap(Phase.PLAYER_MOVE, lap);
 
-		if (player.isAlive()) {
+		worldMoved = player.isAlive();
+		if (worldMoved) {
 			gameTimer += 1;
+			worldTick += 1;
+			fireScheduler.fireDue(this, worldTick);
+			// projectiles move in one pass over the store; their update then only checks bounds
+			entityStore.advance();
 			for(GameObject go: gameObjects){
 				go.update(this);
 			}
+			lap = profiler.lap(Phase.OBJECT_UPDATE, lap);
 		}
 
 
-		for (int i = 0; i < renderables.size(); i++) {
-			Renderable renderableA = renderables.get(i);
-			for (int j = i+1; j < renderables.size(); j++) {
-				Renderable renderableB = renderables.get(j);
+		resolveCollisions();
+		lap = profiler.lap(Phase.COLLISIONS, lap);
+		notifyObservers();
+		lap = profiler.lap(Phase.NOTIFY, lap);
 
-				if((renderableA.getRenderableObjectName().equals("Enemy") && renderableB.getRenderableObjectName().equals("EnemyProjectile"))
-						||(renderableA.getRenderableObjectName().equals("EnemyProjectile") && renderableB.getRenderableObjectName().equals("Enemy"))||
-						(renderableA.getRenderableObjectName().equals("EnemyProjectile") && renderableB.getRenderableObjectName().equals("EnemyProjectile"))){
-				}else{
-					if(renderableA.isColliding(renderableB) && (renderableA.getHealth()>0 && renderableB.getHealth()>0)) {
 
-						renderableA.takeDamage(1);
-						renderableB.takeDamage(1);
-						pointUpdate(renderableA, renderableB);
-					}
-				}
-			}
+		// ensure that renderable foreground objects don't go off-screen
+		entityStore.clampForeground(gameWidth, gameHeight, 1);
+		lap = profiler.lap(Phase.CLAMP, lap);
+
+		applyPendingChanges();
+		profiler.lap(Phase.PENDING, lap);
+		profiler.stop(Phase.TICK, tickStart);
+
+		if (tickEvent.shouldCommit()) {
+			tickEvent.tick = tick;
+			tickEvent.renderables = renderables.size();
+			tickEvent.gameObjects = gameObjects.size();
+			tickEvent.collisionPairs = collisionPairs;
+			tickEvent.collisions = collisions;
+			tickEvent.spawned = spawned;
+			tickEvent.despawned = despawned;
+			tickEvent.commit();
 		}
-		notifyObservers();
+	}
+
+	/**
+	 * Applies the input of this tick: held movement keys and the commands latched since the last tick.
+	 */
+	private void applyInput() {
+		int bits = (left ? InputBits.LEFT : 0) | (right ? InputBits.RIGHT : 0) | commands;
+		commands = 0;
 
+		if (recorder != null) {
+			recorder.record(bits);
+		}
 
-		// ensure that renderable foreground objects don't go off-screen
-		int offset = 1;
-		for(Renderable ro: renderables){
-			if(!ro.getLayer().equals(Renderable.Layer.FOREGROUND)){
-				continue;
+		if ((bits & InputBits.SHOOT) != 0 && shootPressed()) {
+			gameEngineCaretaker.saveGameEngine(this);
+		}
+		if ((bits & InputBits.UNDO) != 0) {
+			gameEngineCaretaker.revertGameEngine(this);
+		}
+		if ((bits & InputBits.DELETE_SLOW) != 0) {
+			deleteSlowProjectile();
+		}
+		if ((bits & InputBits.DELETE_FAST) != 0) {
+			deleteFastProjectile();
+		}
+	}
+
+	/**
+	 * Applies the game objects and renderables queued for adding or removing during the tick.
+	 * Each removal empties a slot in O(1) and the lists close their slots in one ordered
+	 * pass, so despawning k entities costs O(k + n) and the survivors keep their order.
+	 */
+	private void applyPendingChanges() {
+		for (GameObject go : pendingToRemoveGameObject) {
+			gameObjects.remove(go);
+		}
+		gameObjects.addAll(pendingToAddGameObject);
+
+		// a renderable may be queued more than once; only the removal that takes it out counts
+		for (Renderable ro : pendingToRemoveRenderable) {
+			if (renderables.remove(ro)) {
+				entityStore.remove(ro);
+				fireDespawned(ro);
+				releaseProjectile(ro);
 			}
-			if(ro.getPosition().getX() + ro.getWidth() >= gameWidth) {
-				ro.getPosition().setX((gameWidth - offset) -ro.getWidth());
+		}
+		entityStore.compact();
+		for (Renderable ro : pendingToAddRenderable) {
+			if (addRenderable(ro)) {
+				fireSpawned(ro);
 			}
+		}
 
-			if(ro.getPosition().getX() <= 0) {
-				ro.getPosition().setX(offset);
-			}
+		pendingToAddGameObject.clear();
+		pendingToRemoveGameObject.clear();
+		pendingToAddRenderable.clear();
+		pendingToRemoveRenderable.clear();
+	}
 
-			if(ro.getPosition().getY() + ro.getHeight() >= gameHeight) {
-				ro.getPosition().setY((gameHeight - offset) -ro.getHeight());
-			}
+	/**
+	 * Adds a renderable to the game, giving its state to the entity store.
+	 */
+	private boolean addRenderable(Renderable ro) {
+		if (!renderables.add(ro)) {
+			return false;
+		}
+		entityStore.add(ro);
+		return true;
+	}
+
+	/**
+	 * Runs the collision pass over the current renderables.
+	 */
+	void resolveCollisions() {
+		collisionPairs = 0;
+		collisions = 0;
+		entityStore.refresh(worldMoved);
+		broadphase.update(entityStore);
+		broadphase.findPairs(collisionHandler);
+	}
 
-			if(ro.getPosition().getY() <= 0) {
-				ro.getPosition().setY(offset);
+	/**
+	 * Applies damage and points when two renderables collide.
+	 */
+	private void resolveCollision(int a, int b) {
+		collisionPairs++;
+		// Enemy/EnemyProjectile and EnemyProjectile/EnemyProjectile pairs never interact
+		if(!entityStore.canCollide(a, b)){
+			return;
+		}
+		if(entityStore.collides(a, b) && (entityStore.getHealth(a)>0 && entityStore.getHealth(b)>0)) {
+
+			collisions++;
+			entityStore.takeDamage(a, 1);
+			entityStore.takeDamage(b, 1);
+			pointUpdate(entityStore.get(a), entityStore.get(b));
+		}
+	}
+
+	/**
+	 * Returns a removed projectile to the pool of the factory that made it.
+	 */
+	private void releaseProjectile(Renderable renderable) {
+		if (renderable.getCollisionCategory() == CollisionFilter.ENEMY_PROJECTILE) {
+			EnemyProjectile projectile = (EnemyProjectile) renderable;
+			Enemy owner = projectile.getOwner();
+			// an enemy that was full may fire again
+			if (owner != null && owner.removeProjectile(projectile)) {
+				fireScheduler.schedule(owner, worldTick, random);
 			}
+			enemyProjectileFactory.release(projectile);
+		} else if (renderable.getCollisionCategory() == CollisionFilter.PLAYER_PROJECTILE) {
+			player.getProjectileFactory().release((Projectile) renderable);
 		}
+	}
 
+	/**
+	 * Set how many shots per second each enemy fires on average, redrawing the shots already queued.
+	 */
+	public void setFireRate(double shotsPerSecond) {
+		if (shotsPerSecond == this.shotsPerSecond) {
+			return;
+		}
+		this.shotsPerSecond = shotsPerSecond;
+		fireScheduler.setChancePerTick(chancePerTick(shotsPerSecond), worldTick, random);
+	}
+
+	/**
+	 * Get how many shots per second each enemy fires on average.
+	 */
+	public double getFireRate() {
+		return shotsPerSecond;
+	}
+
+	private static double chancePerTick(double shotsPerSecond) {
+		return shotsPerSecond * FixedStepDriver.STEP_NANOS / 1e9;
+	}
+
+	/**
+	 * Get the pooled enemy projectile factory.
+	 */
+	public EnemyProjectileFactory getEnemyProjectileFactory() {
+		return enemyProjectileFactory;
 	}
 
 	/**
@@ -234,15 +503,39 @@ public class GameEngine implements Subject {
 		this.right = true;
 	}
 
+	/**
+	 * Latches one or more InputBits commands (shoot, undo, delete) to run at the start of the next tick.
+	 */
+	public void queueCommand(int bits) {
+		commands |= bits & InputBits.COMMANDS;
+	}
+
+	/**
+	 * Sets the whole input of the next tick, replacing the held keys, e.g. from a replay.
+	 */
+	public void setInput(int bits) {
+		left = (bits & InputBits.LEFT) != 0;
+		right = (bits & InputBits.RIGHT) != 0;
+		commands = bits & InputBits.COMMANDS;
+	}
+
+	/**
+	 * Whether the player can fire right now
+	 */
+	public boolean canShoot() {
+		return timer>45 && player.isAlive();
+	}
+
 	/**
 	 * Player shot
 	 */
 	public boolean shootPressed(){
-		if(timer>45 && player.isAlive()){
+		if(canShoot()){
 			Projectile projectile = player.shoot();
 			prevShot = projectile;
 			gameObjects.add(projectile);
-			renderables.add(projectile);
+			addRenderable(projectile);
+			fireSpawned(projectile);
 			timer=0;
 			return true;
 		}
@@ -253,6 +546,7 @@ public class GameEngine implements Subject {
 	 * Control main player movement
 	 */
 	private void movePlayer(){
+		player.resetDisplacement();
 		if(left){
 			player.left();
 		}
@@ -283,27 +577,86 @@ public class GameEngine implements Subject {
 		return player;
 	}
 
+	/**
+	 * Get the random stream of this match
+	 */
+	public SplittableRandom getRandom() {
+		return random;
+	}
+
+	/**
+	 * Split off an independent random stream, e.g. for a subsystem that must not shift the main sequence
+	 */
+	public SplittableRandom splitRandom() {
+		return random.split();
+	}
+
+	/**
+	 * Get the seed the match was started with
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Record the input of every following tick, or stop recording with null
+	 */
+	public void setRecorder(ReplayRecorder recorder) {
+		this.recorder = recorder;
+	}
+
+	/**
+	 * Get the replay recorder, if any
+	 */
+	public ReplayRecorder getRecorder() {
+		return recorder;
+	}
+
+	/**
+	 * Time the phases of every tick into the profiler; PhaseProfiler.OFF stops timing
+	 */
+	public void setProfiler(PhaseProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	public PhaseProfiler getProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * Get collision broadphase
+	 */
+	public Broadphase getBroadphase() {
+		return broadphase;
+	}
+
+	/**
+	 * Replace the collision broadphase, e.g. with BruteForceBroadphase for comparison
+	 */
+	public void setBroadphase(Broadphase broadphase) {
+		this.broadphase = broadphase;
+	}
+
 	/**
 	 * Clear all game objects
 	 */
 	public void clearGameObject() {
 
 		for (Renderable ro : renderables) {
-			if (ro.getRenderableObjectName().equals("Enemy") ||
-					ro.getRenderableObjectName().equals("EnemyProjectile") ||
-					ro.getRenderableObjectName().equals("PlayerProjectile")) {
+			int category = ro.getCollisionCategory();
+			if ((category & (CollisionFilter.ENEMY | CollisionFilter.ENEMY_PROJECTILE | CollisionFilter.PLAYER_PROJECTILE)) != 0) {
 
 				pendingToRemoveRenderable.add(ro);
 				ro.takeDamage(1);
 			}
 
-			if  (ro.getRenderableObjectName().equals("Bunker")) {
+			if  (category == CollisionFilter.BUNKER) {
 				Bunker bunker = (Bunker) ro;
 				pendingToRemoveRenderable.add(ro);
 				bunker.setLives(0);
 			}
 
-			if (ro.getRenderableObjectName().equals("Player")) {
+			if (category == CollisionFilter.PLAYER) {
 				Player player = (Player) ro;
 				pendingToRemoveRenderable.add(ro);
 				player.setHealth(0);
@@ -345,11 +698,29 @@ public class GameEngine implements Subject {
 	}
 
 	/**
-	 * Adds observer to the observer list in the game.
+	 * Gets the current stats, the published snapshot while nothing has changed since.
+	 * @return Game stats
 	 */
 	@Override
-	public void attach(Observer observer) {
-		observers.add(observer);
+	public GameStats getStats() {
+		int lives = (int) player.getHealth();
+		if (GameStats.changedFrom(published, points, lives, gameTimer) == 0) {
+			return published;
+		}
+		return new GameStats(points, lives, gameTimer);
+	}
+
+	/**
+	 * Adds observer of the given GameStats fields to the observer list in the game,
+	 * and updates it with the stats last published so every observer diffs from the same snapshot.
+	 */
+	@Override
+	public void attach(Observer observer, int fields) {
+		if (published == null) {
+			published = getStats();
+		}
+		observers.add(new Subscription(observer, fields));
+		observer.update(published, fields);
 	}
 
 	/**
@@ -357,16 +728,59 @@ public class GameEngine implements Subject {
 	 */
 	@Override
 	public void detach(Observer observer) {
-		observers.remove(observer);
+		observers.removeIf(subscription -> subscription.observer() == observer);
 	}
 
 	/**
-	 * Notifies all observers in the observer list of the game.
+	 * Publishes the stats to the observers of the fields that changed since the last publish.
+	 * Changes made in between are coalesced into one update; nothing is built when none was made.
 	 */
 	@Override
 	public void notifyObservers() {
-		for (Observer observer : observers) {
-			observer.update();
+		int lives = (int) player.getHealth();
+		int changed = GameStats.changedFrom(published, points, lives, gameTimer);
+		if (changed == 0) {
+			return;
+		}
+		published = new GameStats(points, lives, gameTimer);
+		for (Subscription subscription : observers) {
+			int relevant = changed & subscription.fields();
+			if (relevant != 0) {
+				subscription.observer().update(published, relevant);
+			}
+		}
+	}
+
+	private record Subscription(Observer observer, int fields) {}
+
+
+	/**
+	 * Adds an observer of renderables entering and leaving the game.
+	 */
+	public void attachEntityObserver(EntityObserver observer) {
+		entityObservers.add(observer);
+	}
+
+	/**
+	 * Removes an observer of renderables entering and leaving the game.
+	 */
+	public void detachEntityObserver(EntityObserver observer) {
+		entityObservers.remove(observer);
+	}
+
+	private void fireSpawned(Renderable renderable) {
+		spawned++;
+		SpawnEvent.emit(renderable);
+		for (EntityObserver observer : entityObservers) {
+			observer.spawned(renderable);
+		}
+	}
+
+	private void fireDespawned(Renderable renderable) {
+		despawned++;
+		DespawnEvent.emit(renderable);
+		for (EntityObserver observer : entityObservers) {
+			observer.despawned(renderable);
 		}
 	}
 
@@ -377,7 +791,7 @@ public class GameEngine implements Subject {
 	public void deleteSlowProjectile() {
 		int count = 0;
 		for (Renderable ro : renderables) {
-			if (ro instanceof EnemyProjectile) {
+			if (ro.getCollisionCategory() == CollisionFilter.ENEMY_PROJECTILE) {
 				EnemyProjectile projectile = (EnemyProjectile) ro;
 				if (projectile.getStrategy() instanceof SlowProjectileStrategy) {
 					pendingToRemoveRenderable.add(ro);
@@ -397,7 +811,6 @@ public class GameEngine implements Subject {
 		}
 
 		points += (count * Score.SlowProjectile.getScore());
-		notifyObservers();
 	}
 
 	/**
@@ -406,7 +819,7 @@ public class GameEngine implements Subject {
 	public void deleteFastProjectile() {
 		int count = 0;
 		for (Renderable ro : renderables) {
-			if (ro instanceof EnemyProjectile) {
+			if (ro.getCollisionCategory() == CollisionFilter.ENEMY_PROJECTILE) {
 				EnemyProjectile projectile = (EnemyProjectile) ro;
 				if (projectile.getStrategy() instanceof FastProjectileStrategy) {
 					pendingToRemoveRenderable.add(ro);
@@ -426,7 +839,6 @@ public class GameEngine implements Subject {
 		}
 
 		points += (count * Score.FastProjectile.getScore());
-		notifyObservers();
 	}
 
 	/**
@@ -434,16 +846,15 @@ public class GameEngine implements Subject {
 	 */
 	public void pointUpdate(Renderable renderableA, Renderable renderableB) {
 
+		int categories = renderableA.getCollisionCategory() | renderableB.getCollisionCategory();
+
 		// Enemy Projectile Collision
-		if ((renderableA instanceof EnemyProjectile || renderableB instanceof EnemyProjectile) &&
-				(renderableA instanceof PlayerProjectile || renderableB instanceof PlayerProjectile))  {
+		if (categories == (CollisionFilter.ENEMY_PROJECTILE | CollisionFilter.PLAYER_PROJECTILE))  {
 
-			EnemyProjectile enemyProjectile = null;
-			if (renderableA instanceof EnemyProjectile) {
+			EnemyProjectile enemyProjectile;
+			if (renderableA.getCollisionCategory() == CollisionFilter.ENEMY_PROJECTILE) {
 				enemyProjectile = (EnemyProjectile) renderableA;
-			}
-
-			if (renderableB instanceof EnemyProjectile) {
+			} else {
 				enemyProjectile = (EnemyProjectile) renderableB;
 			}
 
@@ -458,15 +869,12 @@ public class GameEngine implements Subject {
 		}
 
 		// Enemy Collision
-		if ((renderableA instanceof Enemy || renderableB instanceof Enemy) &&
-				(renderableA instanceof PlayerProjectile || renderableB instanceof PlayerProjectile)) {
+		if (categories == (CollisionFilter.ENEMY | CollisionFilter.PLAYER_PROJECTILE)) {
 
-			Enemy enemy = null;
-			if (renderableA instanceof Enemy) {
+			Enemy enemy;
+			if (renderableA.getCollisionCategory() == CollisionFilter.ENEMY) {
 				enemy = (Enemy) renderableA;
-			}
-
-			if (renderableB instanceof Enemy) {
+			} else {
 				enemy = (Enemy) renderableB;
 			}
 
@@ -484,53 +892,45 @@ public class GameEngine implements Subject {
 
 	// Memento design pattern
 	/**
-	 * Saves the game state in a memento.
+	 * Saves the game state in a memento, encoded straight from the live entities without copying them.
+	 * Only the entities that changed since the last keyframe are written, see DeltaEncoder.
 	 */
 	public GameEngineMemento save() {
+		SnapshotEvent event = new SnapshotEvent();
+		event.begin();
 
-		List<Enemy> enemyCopies = new ArrayList<>();
-		List<Bunker> bunkerCopies = new ArrayList<>();
-		Player playerCopy = (Player) getPlayer().copy();
+		Snapshot state = new Snapshot(points, gameTimer, player, levelBunkers, formation.getMembers());
+		GameEngineMemento memento = mementoEncoder.save(state, formation, prevShot);
 
-		for (Renderable ro : renderables) {
-			if (ro instanceof Enemy) {
-				Enemy enemy = (Enemy) ((Enemy) ro).copy();
-				enemyCopies.add(enemy);
-
-			}
-
-			if (ro instanceof Bunker) {
-				Bunker bunker = (Bunker) ((Bunker) ro).copy();
-				bunkerCopies.add(bunker);
-			}
-		}
-
-
-		GameEngineMemento memento = new GameEngineMemento(points, gameTimer, enemyCopies, bunkerCopies, prevShot, playerCopy);
+		commitSnapshot(event, SnapshotEvent.SAVE, memento, state);
 		return memento;
 	}
 
 	/**
-	 * Reverts the game state in the memento.
+	 * Reverts the game state in the memento, decoding new entities from it.
 	 */
 	public void restore(GameEngineMemento memento) {
+		SnapshotEvent event = new SnapshotEvent();
+		event.begin();
+
+		Snapshot state = MementoCodec.decode(memento);
 
 		for (Renderable ro : renderables) {
-			if (ro.getRenderableObjectName().equals("Enemy") ||
-					ro.getRenderableObjectName().equals("EnemyProjectile") ||
+			int category = ro.getCollisionCategory();
+			if ((category & (CollisionFilter.ENEMY | CollisionFilter.ENEMY_PROJECTILE)) != 0 ||
 					ro.equals(memento.getShot())) {
 
 				pendingToRemoveRenderable.add(ro);
 				ro.takeDamage(1);
 			}
 
-			if  (ro.getRenderableObjectName().equals("Bunker")) {
+			if  (category == CollisionFilter.BUNKER) {
 				Bunker bunker = (Bunker) ro;
 				pendingToRemoveRenderable.add(ro);
 				bunker.setLives(0);
 			}
 
-			if (ro.getRenderableObjectName().equals("Player")) {
+			if (category == CollisionFilter.PLAYER) {
 				Player player = (Player) ro;
 				pendingToRemoveRenderable.add(ro);
 				player.setHealth(0);
@@ -539,6 +939,7 @@ public class GameEngine implements Subject {
 		}
 		for (GameObject go : gameObjects) {
 			if (go instanceof Enemy ||
+					go instanceof Formation ||
 					go instanceof EnemyProjectile ||
 					go instanceof Bunker ||
 					go.equals(memento.getShot()) ||
@@ -548,30 +949,59 @@ public class GameEngine implements Subject {
 		}
 
 
-		for (Enemy enemy : memento.getEnemies()) {
-			Enemy enemyCopy = (Enemy) enemy.copy();
+		for (Enemy enemy : state.enemies()) {
+			fireScheduler.schedule(enemy, worldTick, random);
 
-			for (Projectile projectile : enemyCopy.getEnemyProjectile()) {
-				renderables.add(projectile);
+			for (Projectile projectile : enemy.getEnemyProjectile()) {
+				addRenderable(projectile);
 				gameObjects.add(projectile);
+				fireSpawned(projectile);
 			}
-			renderables.add(enemyCopy);
-			gameObjects.add(enemyCopy);
+			addRenderable(enemy);
+			gameObjects.add(enemy);
+			fireSpawned(enemy);
+		}
+		formation = new Formation(state.enemies());
+		gameObjects.add(formation);
+
+		levelBunkers = state.bunkers();
+		for (Bunker bunker : levelBunkers) {
+			addRenderable(bunker);
+			gameObjects.add(bunker);
+			fireSpawned(bunker);
 		}
 
-		for (Bunker bunker : memento.getBunkers()) {
-			Bunker bunkerCopy = (Bunker) bunker.copy();
+		points = state.score();
+		gameTimer = state.timer();
+		player = state.player();
+		addRenderable(player);
+		fireSpawned(player);
+
+		commitSnapshot(event, SnapshotEvent.RESTORE, memento, state);
+	}
 
-			renderables.add(bunkerCopy);
-			gameObjects.add(bunkerCopy);
+	private static void commitSnapshot(SnapshotEvent event, String operation, GameEngineMemento memento, Snapshot state) {
+		if (event.shouldCommit()) {
+			event.operation = operation;
+			event.bytes = memento.getBytes();
+			event.enemies = state.enemies().size();
+			event.bunkers = state.bunkers().size();
+			event.commit();
 		}
+	}
 
-		points = memento.getScore();
-		gameTimer = memento.getTimer();
-		player = (Player) memento.getPlayer().copy();
-		renderables.add(player);
+	/**
+	 * Candidate pairs the broadphase reported in the last tick
+	 */
+	public int getCollisionPairs() {
+		return collisionPairs;
+	}
 
-		notifyObservers();
+	/**
+	 * Pairs that hit and took damage in the last tick
+	 */
+	public int getCollisions() {
+		return collisions;
 	}
 
 	/**
@@ -1,46 +1,67 @@
 package invaders.engine;
 
-import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import invaders.entities.EntityViewImpl;
 import invaders.entities.SpaceBackground;
 import invaders.observer.*;
+import invaders.profiling.Phase;
+import invaders.profiling.PhaseProfiler;
+import invaders.profiling.ProfilerOverlay;
 import invaders.singleton.Level;
 import invaders.singleton.Singleton;
 import javafx.geometry.Side;
 import javafx.scene.control.Button;
 import javafx.scene.control.ContextMenu;
-import javafx.scene.control.Label;
 import javafx.scene.control.MenuItem;
-import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
-import javafx.util.Duration;
+import javafx.scene.input.KeyCode;
 
 import invaders.entities.EntityView;
+import invaders.rendering.CanvasRenderer;
+import invaders.rendering.Hud;
+import invaders.rendering.RenderMode;
 import invaders.rendering.Renderable;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.layout.Pane;
 
 /**
  * Displays the game engine to GUI
  */
-public class GameWindow implements Observer {
+public class GameWindow implements Observer, EntityObserver {
 	private final int width;
     private final int height;
 	private Scene scene;
     private Pane pane;
     private GameEngine model;
-    private List<EntityView> entityViews =  new ArrayList<EntityView>();
+    private FixedStepDriver driver;
+    private AnimationTimer frameTimer;
+    private Map<Renderable, EntityView> entityViews = new IdentityHashMap<>();
+    private final RenderMode renderMode;
+    private CanvasRenderer canvasRenderer;
     private Renderable background;
+    private final List<Renderable> deadEntities = new ArrayList<>();
+    private final Set<Node> removedNodes = Collections.newSetFromMap(new IdentityHashMap<>()); // taken off the pane once per frame
+
+    // P shows the phase timings, see PhaseProfiler
+    private static final int OVERLAY_REFRESH_FRAMES = 30;
+    private PhaseProfiler profiler = PhaseProfiler.OFF;
+    private ProfilerOverlay overlay;
+    private boolean overlayProfiling = false; // the overlay started the profiler, so hiding it stops profiling
+    private int framesSinceRefresh = 0;
+
+    // observers of the stats other than the window itself, moved to each new engine
+    private final List<Observer> statsObservers = new ArrayList<>();
 
     private double xViewportOffset = 0.0;
     private double yViewportOffset = 0.0;
-    private int points = 0;
-    private double lives = 0;
-    private int timer = 0;
+    private Hud hud;
     private Level level;
 
 
@@ -50,25 +71,38 @@ public class GameWindow implements Observer {
      * Pass in game engine and the enum for the level
      */
     public GameWindow(GameEngine model, Level level){
+        this(model, level, RenderMode.NODES);
+    }
+
+    /**
+     * Game Window Constructor with a choice of renderer, see RenderMode
+     */
+    public GameWindow(GameEngine model, Level level, RenderMode renderMode){
         this.model = model;
+        this.renderMode = renderMode;
+        model.setFireRate(level.getShotsPerSecond());
+        this.driver = new FixedStepDriver(model);
 		this.width =  model.getGameWidth();
         this.height = model.getGameHeight();
-        this.lives = model.getPlayer().getHealth();
 
         pane = new Pane();
         scene = new Scene(pane, width, height);
         this.background = new SpaceBackground(model, pane);
+        if (renderMode == RenderMode.CANVAS) {
+            canvasRenderer = new CanvasRenderer(width, height);
+            pane.getChildren().add(canvasRenderer.getCanvas());
+        }
 
-        KeyboardInputHandler keyboardInputHandler = new KeyboardInputHandler(this.model);
-
-        scene.setOnKeyPressed(keyboardInputHandler::handlePressed);
-        scene.setOnKeyReleased(keyboardInputHandler::handleReleased);
+        bindKeys();
         this.level = level;
 
+        hud = new Hud(pane);
+        hud.setLevel(level);
         buttonSetting();
 
         // Observer design pattern
         model.attach(this);
+        attachEntities();
 
     }
 
@@ -77,100 +111,131 @@ public class GameWindow implements Observer {
      * Updates and displays time frame
      */
 	public void run() {
-         Timeline timeline = new Timeline(new KeyFrame(Duration.millis(17), t -> this.draw()));
+        if (frameTimer != null) {
+            return;
+        }
 
-         timeline.setCycleCount(Timeline.INDEFINITE);
-         timeline.play();
+        frameTimer = new AnimationTimer() {
+            private long lastFrame = -1;
+
+            @Override
+            public void handle(long now) {
+                if (lastFrame >= 0) {
+                    driver.advance(now - lastFrame);
+                }
+                lastFrame = now;
+                draw();
+            }
+        };
+        frameTimer.start();
     }
 
     /**
-     * Updates and displays main loop
+     * Displays the current game state; the simulation itself is advanced by the driver
      */
     private void draw(){
-        model.update();
-        pane.getChildren().removeIf(node -> node instanceof Label);
-
-        List<Renderable> renderables = model.getRenderables();
-        for (Renderable entity : renderables) {
-            boolean notFound = true;
-            for (EntityView view : entityViews) {
-                if (view.matchesEntity(entity)) {
-                    notFound = false;
-                    view.update(xViewportOffset, yViewportOffset);
-                    break;
+        PhaseProfiler profiler = this.profiler;
+        long frameStart = profiler.start();
+        long lap = frameStart;
+        // entities are drawn between their last two ticks, by how far real time is into the next one
+        double alpha = driver.getAlpha();
+
+        if (renderMode == RenderMode.CANVAS) {
+            canvasRenderer.draw(model.getRenderables(), xViewportOffset, yViewportOffset, alpha);
+            profiler.lap(Phase.VIEW_SYNC, lap);
+        } else {
+            // views of removed entities are dropped through despawned()
+            for (Renderable entity : model.getRenderables()) {
+                EntityView view = entityViews.get(entity);
+                if (view == null) {
+                    continue;
                 }
-            }
-            if (notFound) {
-                EntityView entityView = new EntityViewImpl(entity);
-                entityViews.add(entityView);
-                pane.getChildren().add(entityView.getNode());
-            }
-        }
-
-        for (Renderable entity : renderables){
-            if (!entity.isAlive()){
-                for (EntityView entityView : entityViews){
-                    if (entityView.matchesEntity(entity)){
-                        entityView.markForDelete();
-                    }
+                if (entity.isAlive()) {
+                    view.update(xViewportOffset, yViewportOffset, alpha);
+                } else {
+                    deadEntities.add(entity);
                 }
             }
-        }
+            lap = profiler.lap(Phase.VIEW_SYNC, lap);
 
-        for (EntityView entityView : entityViews) {
-            if (entityView.isMarkedForDelete()) {
-                pane.getChildren().remove(entityView.getNode());
+            for (Renderable entity : deadEntities) {
+                removeView(entity);
             }
+            deadEntities.clear();
+            removeNodes();
+            profiler.lap(Phase.RECONCILE, lap);
         }
 
+        if (overlay != null && ++framesSinceRefresh >= OVERLAY_REFRESH_FRAMES) {
+            overlay.refresh();
+            framesSinceRefresh = 0;
+        }
+        profiler.stop(Phase.FRAME, frameStart);
+    }
 
-        model.getGameObjects().removeAll(model.getPendingToRemoveGameObject());
-        model.getGameObjects().addAll(model.getPendingToAddGameObject());
-        model.getRenderables().removeAll(model.getPendingToRemoveRenderable());
-        model.getRenderables().addAll(model.getPendingToAddRenderable());
-
-        model.getPendingToAddGameObject().clear();
-        model.getPendingToRemoveGameObject().clear();
-        model.getPendingToAddRenderable().clear();
-        model.getPendingToRemoveRenderable().clear();
-
-        entityViews.removeIf(EntityView::isMarkedForDelete);
+    /**
+     * Registers for spawn/despawn events and creates views for the current renderables
+     */
+    private void attachEntities() {
+        model.attachEntityObserver(this);
+        for (Renderable entity : model.getRenderables()) {
+            spawned(entity);
+        }
+    }
 
+    /**
+     * Creates the view of a renderable that entered the game
+     */
+    @Override
+    public void spawned(Renderable entity) {
+        if (renderMode == RenderMode.NODES && entity.isAlive() && !entityViews.containsKey(entity)) {
+            EntityView entityView = new EntityViewImpl(entity);
+            entityViews.put(entity, entityView);
+            pane.getChildren().add(entityView.getNode());
+        }
+    }
 
-        displayText("LIVES: " + (int) lives, 20, 20, 20, Color.WHITE);
-        displayText("SCORE: " + points, 20, 50, 20, Color.WHITE);
-        displayText("TIME: " + formatTime(timer), 20, 80, 20, Color.WHITE);
-        displayText("LEVEL: " + level.getLevel(), 450, 20, 20, level.getColor());
+    /**
+     * Removes the view of a renderable that left the game
+     */
+    @Override
+    public void despawned(Renderable entity) {
+        removeView(entity);
     }
 
     /**
-     * Return Game window scene
-     * @return Game window
+     * Drops the view of a renderable; its node stays on the pane until removeNodes()
      */
-	public Scene getScene() {
-        return scene;
+    private void removeView(Renderable entity) {
+        EntityView entityView = entityViews.remove(entity);
+        if (entityView != null) {
+            removedNodes.add(entityView.getNode());
+        }
     }
 
     /**
-     * Format game text
+     * Takes the nodes of every view dropped since the last frame off the pane in one pass over its children
      */
-    public void displayText(String text, double x, double y, double size, Color color) {
-        Label label = new Label(text);
-        label.setFont(Font.font("Georgia", size));
-        label.setTextFill(color);
-        label.setLayoutX(x);
-        label.setLayoutY(y);
-        pane.getChildren().add(label);
+    private void removeNodes() {
+        if (!removedNodes.isEmpty()) {
+            pane.getChildren().removeAll(removedNodes);
+            removedNodes.clear();
+        }
     }
 
     /**
-     * Format game time
+     * Return the engine currently shown, which changes with the level
+     */
+	public GameEngine getModel() {
+		return model;
+	}
+
+    /**
+     * Return Game window scene
+     * @return Game window
      */
-    private String formatTime(int frameCount) {
-        int seconds = frameCount / 120;
-        int minutes = seconds / 60;
-        seconds %= 60;
-        return String.format("%d:%02d", minutes, seconds);
+	public Scene getScene() {
+        return scene;
     }
 
     /**
@@ -217,42 +282,124 @@ public class GameWindow implements Observer {
      * Change difficulty
      */
     private void changeDifficulty() {
-        GameEngine newGameEngine = null;
+        String config = null;
 
         switch (level) {
             case EASY:
-                newGameEngine = new GameEngine(Singleton.getInstance().getEasyLevel());
+                config = Singleton.getInstance().getEasyLevel();
                 break;
             case MEDIUM:
-                newGameEngine = new GameEngine(Singleton.getInstance().getMediumLevel());
+                config = Singleton.getInstance().getMediumLevel();
                 break;
             case HARD:
-                newGameEngine = new GameEngine(Singleton.getInstance().getHardLevel());
+                config = Singleton.getInstance().getHardLevel();
                 break;
         }
+        GameEngine newGameEngine = new GameEngine(config);
 
         // Clear Previous Game
         model.clearGameObject();
-        draw();
         model.detach(this);
+        for (Observer observer : statsObservers) {
+            model.detach(observer);
+        }
+        model.detachEntityObserver(this);
+        for (EntityView view : entityViews.values()) {
+            removedNodes.add(view.getNode());
+        }
+        entityViews.clear();
+        removeNodes();
+
+        newGameEngine.setFireRate(level.getShotsPerSecond());
+
+        // Keep recording across the level change, the new level as a segment of its own
+        ReplayRecorder recorder = model.getRecorder();
+        if (recorder != null) {
+            recorder.startLevel(config, newGameEngine.getSeed(), newGameEngine.getFireRate());
+            newGameEngine.setRecorder(recorder);
+        }
 
         // Make New Game
         model = newGameEngine;
+        driver = new FixedStepDriver(model);
+        model.setProfiler(profiler);
         model.attach(this);
+        for (Observer observer : statsObservers) {
+            model.attach(observer);
+        }
+        attachEntities();
+        hud.setLevel(level);
+        bindKeys();
+    }
+
+    /**
+     * Attach an observer to the stats of the engine shown, keeping it attached across level changes
+     */
+    public void attachObserver(Observer observer) {
+        statsObservers.add(observer);
+        model.attach(observer);
+    }
+
+    /**
+     * Routes keys to the input handler of the current engine; P toggles the profiler overlay
+     */
+    private void bindKeys() {
         KeyboardInputHandler keyboardInputHandler = new KeyboardInputHandler(this.model);
-        scene.setOnKeyPressed(keyboardInputHandler::handlePressed);
+        scene.setOnKeyPressed(keyEvent -> {
+            if (keyEvent.getCode() == KeyCode.P) {
+                toggleOverlay();
+            } else {
+                keyboardInputHandler.handlePressed(keyEvent);
+            }
+        });
         scene.setOnKeyReleased(keyboardInputHandler::handleReleased);
     }
 
+    /**
+     * Show or hide the phase timings. Profiling runs while they are shown, and keeps
+     * running after they are hidden only if it was on before, as with -Dinvaders.profile
+     */
+    private void toggleOverlay() {
+        if (overlay != null) {
+            pane.getChildren().remove(overlay.getNode());
+            overlay = null;
+            if (overlayProfiling) {
+                setProfiler(PhaseProfiler.OFF);
+            }
+            return;
+        }
+        if (!profiler.isEnabled()) {
+            setProfiler(new PhaseProfiler());
+            overlayProfiling = true;
+        }
+        overlay = new ProfilerOverlay(profiler, 20, 110);
+        pane.getChildren().add(overlay.getNode());
+        framesSinceRefresh = 0;
+    }
+
+    /**
+     * Time the phases of every tick and frame into the profiler, also across level changes
+     */
+    public void setProfiler(PhaseProfiler profiler) {
+        this.profiler = profiler;
+        this.overlayProfiling = false;
+        model.setProfiler(profiler);
+    }
+
+    public PhaseProfiler getProfiler() {
+        return profiler;
+    }
+
 
     /**
      * Receive updates from the game
      */
     // Observer design pattern
     @Override
-    public void update() {
-        this.points = model.getPoints();
-        this.lives = model.getLives();
-        this.timer = model.getTimer();
+    public void update(GameStats stats, int changed) {
+        // only called when a value changed; the HUD also skips labels whose shown text is the same
+        long start = profiler.start();
+        hud.update(stats.points(), stats.lives(), stats.timer());
+        profiler.stop(Phase.HUD, start);
     }
 }
@@ -0,0 +1,20 @@
+package invaders.engine;
+
+/**
+ * Bits of the per-tick player input, as latched by the engine and stored in replays.
+ */
+public final class InputBits {
+    public static final int LEFT = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int SHOOT = 1 << 2;
+    public static final int UNDO = 1 << 3;
+    public static final int DELETE_SLOW = 1 << 4;
+    public static final int DELETE_FAST = 1 << 5;
+
+    /**
+     * One-shot commands, as opposed to held movement keys
+     */
+    public static final int COMMANDS = SHOOT | UNDO | DELETE_SLOW | DELETE_FAST;
+
+    private InputBits() {}
+}
@@ -38,13 +38,13 @@ class KeyboardInputHandler {
 
 
         if (keyEvent.getCode().equals(KeyCode.SPACE)) {
-            if (model.shootPressed()) {
+            if (model.canShoot()) {
                 MediaPlayer shoot = sounds.get("shoot");
                 shoot.stop();
                 shoot.play();
-
-                model.getGameEngineCaretaker().saveGameEngine(model);
             }
+            // shots, undo and deletes run on the next tick so a replay sees them at the same tick
+            model.queueCommand(InputBits.SHOOT);
         }
 
         if (keyEvent.getCode().equals(KeyCode.LEFT)) {
@@ -54,15 +54,15 @@ class KeyboardInputHandler {
             right = true;
         }
         if (keyEvent.getCode().equals(KeyCode.S)) {
-            model.getGameEngineCaretaker().revertGameEngine(model);
+            model.queueCommand(InputBits.UNDO);
         }
 
         if (keyEvent.getCode().equals(KeyCode.D)) {
-            model.deleteSlowProjectile();
+            model.queueCommand(InputBits.DELETE_SLOW);
         }
 
         if (keyEvent.getCode().equals(KeyCode.F)) {
-            model.deleteFastProjectile();
+            model.queueCommand(InputBits.DELETE_FAST);
         }
 
         if (left) {
@@ -0,0 +1,68 @@
+package invaders.engine;
+
+import invaders.entities.Player;
+import invaders.physics.CollisionFilter;
+import invaders.rendering.Renderable;
+
+/**
+ * A scripted player for headless matches: picks the InputBits of every tick.
+ */
+@FunctionalInterface
+public interface PlayerPolicy {
+
+    /**
+     * Decide the input of the coming tick
+     * @return InputBits of the tick
+     */
+    int decide(GameEngine engine, long tick);
+
+    /**
+     * Never moves or fires, measures how long the bunkers alone hold out
+     */
+    static PlayerPolicy idle() {
+        return (engine, tick) -> 0;
+    }
+
+    /**
+     * Stands still and fires whenever the gun is ready
+     */
+    static PlayerPolicy turret() {
+        return (engine, tick) -> InputBits.SHOOT;
+    }
+
+    /**
+     * Moves under the lowest living enemy and fires whenever the gun is ready
+     */
+    static PlayerPolicy tracker() {
+        return (engine, tick) -> {
+            Player player = engine.getPlayer();
+            double playerX = player.getPosition().getX() + player.getWidth() / 2;
+
+            Renderable target = null;
+            for (Renderable ro : engine.getRenderables()) {
+                if (ro.getCollisionCategory() != CollisionFilter.ENEMY || !ro.isAlive()) {
+                    continue;
+                }
+                if (target == null
+                        || ro.getPosition().getY() > target.getPosition().getY()
+                        || (ro.getPosition().getY() == target.getPosition().getY()
+                            && Math.abs(ro.getPosition().getX() - playerX) < Math.abs(target.getPosition().getX() - playerX))) {
+                    target = ro;
+                }
+            }
+            if (target == null) {
+                return 0;
+            }
+
+            double targetX = target.getPosition().getX() + target.getWidth() / 2;
+            double distance = targetX - playerX;
+            if (distance > player.getVelocity()) {
+                return InputBits.RIGHT | InputBits.SHOOT;
+            }
+            if (distance < -player.getVelocity()) {
+                return InputBits.LEFT | InputBits.SHOOT;
+            }
+            return InputBits.SHOOT;
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package invaders.engine;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Re-simulates a recorded match headless, tick for tick.
+ */
+public class ReplayPlayer {
+    private final List<Segment> levels;
+
+    private ReplayPlayer(List<Segment> levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * Read a recording written by ReplayRecorder
+     */
+    public static ReplayPlayer read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            int magic = in.readInt();
+            if (magic != ReplayRecorder.MAGIC) {
+                throw new IOException("Not a replay: bad magic " + Integer.toHexString(magic));
+            }
+            byte version = in.readByte();
+            if (version != ReplayRecorder.VERSION) {
+                throw new IOException("Unsupported replay version " + version);
+            }
+            int count = readVarInt(in);
+            if (count <= 0) {
+                throw new IOException("Replay holds no level");
+            }
+            List<Segment> levels = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                levels.add(readSegment(in));
+            }
+            return new ReplayPlayer(levels);
+        }
+    }
+
+    private static Segment readSegment(DataInputStream in) throws IOException {
+        String config = in.readUTF();
+        int checksum = in.readInt();
+        long seed = in.readLong();
+        double shotsPerSecond = in.readDouble();
+        byte[] inputs = new byte[readVarInt(in)];
+
+        int tick = 0;
+        while (tick < inputs.length) {
+            byte bits = in.readByte();
+            int run = readVarInt(in);
+            if (run <= 0 || tick + run > inputs.length) {
+                throw new IOException("Corrupt replay run at tick " + tick);
+            }
+            for (int i = 0; i < run; i++) {
+                inputs[tick++] = bits;
+            }
+        }
+        return new Segment(config, checksum, seed, shotsPerSecond, inputs);
+    }
+
+    /**
+     * Play every recorded level on the config it was recorded on, and return the engine of the last
+     *
+     * @throws IllegalArgumentException if a config file is missing or differs from the recorded one
+     */
+    public GameEngine play() {
+        GameEngine engine = null;
+        for (Segment level : levels) {
+            engine = level.play(level.config);
+        }
+        return engine;
+    }
+
+    /**
+     * Play the last recorded level on a copy of its config at another path, e.g. after the game moved
+     *
+     * @throws IllegalArgumentException if the file differs from the config the level was recorded on
+     */
+    public GameEngine play(String config) {
+        return levels.get(levels.size() - 1).play(config);
+    }
+
+    public int getLevels() {
+        return levels.size();
+    }
+
+    /**
+     * Seed of the last recorded level
+     */
+    public long getSeed() {
+        return levels.get(levels.size() - 1).seed;
+    }
+
+    /**
+     * Total number of ticks recorded over all levels
+     */
+    public int getTicks() {
+        int ticks = 0;
+        for (Segment level : levels) {
+            ticks += level.inputs.length;
+        }
+        return ticks;
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private record Segment(String config, int checksum, long seed, double shotsPerSecond, byte[] inputs) {
+        /**
+         * Build an engine for the config with the recorded seed and feed it every recorded tick
+         */
+        private GameEngine play(String path) {
+            if (ReplayRecorder.checksum(path) != checksum) {
+                throw new IllegalArgumentException("Config " + path + " is not the one the replay was recorded on ("
+                        + config + ")");
+            }
+            GameEngine engine = new GameEngine(path, seed);
+            engine.setFireRate(shotsPerSecond);
+            for (byte bits : inputs) {
+                engine.setInput(bits);
+                engine.update();
+            }
+            return engine;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package invaders.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Records the seed and the input bits of every tick of a match.
+ *
+ * A match is one segment per level played, since changing the level starts a new engine.
+ * File layout: magic, version byte, level count, then per level the config path, a CRC32
+ * of the config file, seed, enemy fire rate, tick count and runs of (input byte, run
+ * length varint). Held keys repeat for many ticks, so runs keep a match down to a few
+ * bytes per second of play.
+ */
+public class ReplayRecorder {
+    static final int MAGIC = 0x53495250; // "SIRP"
+    static final byte VERSION = 3;
+
+    private final List<Segment> levels = new ArrayList<>();
+    private Segment current;
+
+    /**
+     * Start recording a match on the config
+     *
+     * @param shotsPerSecond enemy fire rate the engine was set to, see GameEngine.setFireRate
+     */
+    public ReplayRecorder(String config, long seed, double shotsPerSecond) {
+        startLevel(config, seed, shotsPerSecond);
+    }
+
+    /**
+     * Record the following ticks as a new level, played by a new engine on the config
+     */
+    public void startLevel(String config, long seed, double shotsPerSecond) {
+        current = new Segment(config, checksum(config), seed, shotsPerSecond);
+        levels.add(current);
+    }
+
+    /**
+     * Append the input of one tick to the current level
+     */
+    public void record(int bits) {
+        current.record(bits);
+    }
+
+    public int getLevels() {
+        return levels.size();
+    }
+
+    /**
+     * Total number of ticks recorded over all levels
+     */
+    public int getTicks() {
+        int ticks = 0;
+        for (Segment level : levels) {
+            ticks += level.ticks;
+        }
+        return ticks;
+    }
+
+    /**
+     * Write the recording to a file
+     */
+    public void write(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            writeVarInt(out, levels.size());
+            for (Segment level : levels) {
+                level.write(out);
+            }
+        }
+    }
+
+    /**
+     * CRC32 of the config file, so a replay can tell it is played on the level it was recorded on
+     */
+    static int checksum(String config) {
+        CRC32 crc = new CRC32();
+        try {
+            crc.update(Files.readAllBytes(Paths.get(config)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Config not found: " + config, e);
+        }
+        return (int) crc.getValue();
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * The inputs of one level
+     */
+    private static final class Segment {
+        private final String config;
+        private final int checksum;
+        private final long seed;
+        private final double shotsPerSecond;
+        private byte[] inputs = new byte[1024];
+        private int ticks = 0;
+
+        private Segment(String config, int checksum, long seed, double shotsPerSecond) {
+            this.config = config;
+            this.checksum = checksum;
+            this.seed = seed;
+            this.shotsPerSecond = shotsPerSecond;
+        }
+
+        private void record(int bits) {
+            if (ticks == inputs.length) {
+                inputs = Arrays.copyOf(inputs, inputs.length * 2);
+            }
+            inputs[ticks++] = (byte) bits;
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeUTF(config);
+            out.writeInt(checksum);
+            out.writeLong(seed);
+            out.writeDouble(shotsPerSecond);
+            writeVarInt(out, ticks);
+
+            int i = 0;
+            while (i < ticks) {
+                byte bits = inputs[i];
+                int run = 1;
+                while (i + run < ticks && inputs[i + run] == bits) {
+                    run++;
+                }
+                out.writeByte(bits);
+                writeVarInt(out, run);
+                i += run;
+            }
+        }
+    }
+}
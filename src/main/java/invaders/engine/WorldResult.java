@@ -0,0 +1,68 @@
+package invaders.engine;
+
+/**
+ * Outcome of one headless world of a batch.
+ */
+public class WorldResult {
+    private final long seed;
+    private final long ticks;
+    private final int score;
+    private final int kills;
+    private final int enemies;
+    private final boolean playerAlive;
+
+    public WorldResult(long seed, long ticks, int score, int kills, int enemies, boolean playerAlive) {
+        this.seed = seed;
+        this.ticks = ticks;
+        this.score = score;
+        this.kills = kills;
+        this.enemies = enemies;
+        this.playerAlive = playerAlive;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Ticks the player survived, capped by the batch tick limit
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    public double getSurvivalSeconds() {
+        return ticks * (double) FixedStepDriver.STEP_NANOS / 1e9;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getKills() {
+        return kills;
+    }
+
+    public int getEnemies() {
+        return enemies;
+    }
+
+    /**
+     * Enemies killed per second survived
+     */
+    public double getKillRate() {
+        double seconds = getSurvivalSeconds();
+        return seconds == 0 ? 0 : kills / seconds;
+    }
+
+    public boolean isPlayerAlive() {
+        return playerAlive;
+    }
+
+    /**
+     * Whether every enemy was killed
+     */
+    public boolean isCleared() {
+        return kills == enemies;
+    }
+}
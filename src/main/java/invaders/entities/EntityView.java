@@ -4,7 +4,10 @@ import javafx.scene.Node;
 import invaders.rendering.Renderable;
 
 public interface EntityView {
-    void update(double xViewportOffset, double yViewportOffset);
+    /**
+     * Show the entity alpha of the way from where it was at the start of the last tick to where it is now
+     */
+    void update(double xViewportOffset, double yViewportOffset, double alpha);
 
     boolean matchesEntity(Renderable entity);
 
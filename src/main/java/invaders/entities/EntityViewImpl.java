@@ -1,22 +1,29 @@
 package invaders.entities;
 
-import invaders.physics.Vector2D;
 import invaders.rendering.Renderable;
 import javafx.scene.Node;
 import javafx.scene.image.ImageView;
 
 public class EntityViewImpl implements EntityView {
     private Renderable entity;
-    private Vector2D position;
     private boolean delete = false;
     private ImageView node;
 
+    // what was last pushed to the node, so an unchanged entity costs a few comparisons and no node writes
+    private double x;
+    private double y;
+    private int appearanceVersion;
+
     public EntityViewImpl(Renderable entity) {
         this.entity = entity;
-        this.position = entity.getPosition();
         node = new ImageView(entity.getImage());
         node.setViewOrder(getViewOrder(entity.getLayer()));
-        update(0.0, 0.0);
+        node.setPreserveRatio(true);
+        x = entity.getPosition().getX();
+        y = entity.getPosition().getY();
+        node.setX(x);
+        node.setY(y);
+        pushAppearance();
     }
 
     private static double getViewOrder(Renderable.Layer layer) {
@@ -29,16 +36,30 @@ public class EntityViewImpl implements EntityView {
     }
 
     @Override
-    public void update(double xViewportOffset, double yViewportOffset) {
-        if (!node.getImage().equals(entity.getImage())) {
+    public void update(double xViewportOffset, double yViewportOffset, double alpha) {
+        double newX = entity.getPosition().interpolateX(alpha) - xViewportOffset;
+        double newY = entity.getPosition().interpolateY(alpha) - yViewportOffset;
+        if (newX != x) {
+            x = newX;
+            node.setX(newX);
+        }
+        if (newY != y) {
+            y = newY;
+            node.setY(newY);
+        }
+        if (entity.getAppearanceVersion() != appearanceVersion) {
+            pushAppearance();
+        }
+        delete = false;
+    }
+
+    private void pushAppearance() {
+        appearanceVersion = entity.getAppearanceVersion();
+        if (node.getImage() != entity.getImage()) {
             node.setImage(entity.getImage());
         }
-        node.setX(position.getX() - xViewportOffset);
-        node.setY(position.getY() - yViewportOffset);
         node.setFitHeight(entity.getHeight());
         node.setFitWidth(entity.getWidth());
-        node.setPreserveRatio(true);
-        delete = false;
     }
 
     @Override
@@ -1,21 +1,23 @@
 package invaders.entities;
 
+import invaders.GameConfig;
 import invaders.factory.PlayerProjectile;
 import invaders.factory.PlayerProjectileFactory;
 import invaders.factory.Projectile;
 import invaders.factory.ProjectileFactory;
 import invaders.physics.Collider;
+import invaders.physics.CollisionFilter;
 import invaders.physics.Moveable;
 import invaders.physics.Vector2D;
 import invaders.prototype.Prototype;
 import invaders.rendering.Animator;
 import invaders.rendering.Renderable;
+import invaders.rendering.SpriteCache;
 
 import invaders.strategy.NormalProjectileStrategy;
+import invaders.strategy.ProjectileStrategy;
 import javafx.scene.image.Image;
-import org.json.simple.JSONObject;
 
-import java.io.File;
 import java.util.Map;
 
 public class Player implements Moveable, Renderable, Prototype {
@@ -23,21 +25,20 @@ public class Player implements Moveable, Renderable, Prototype {
     private final Vector2D position;
     private double health;
     private double velocity;
+    private double displacementX = 0; // moved so far this tick, for swept collision
 
     private final double width = 20;
     private final double height = 20;
     private final Image image;
     private ProjectileFactory playerProjectileFactory = new PlayerProjectileFactory();
+    private static final ProjectileStrategy shotStrategy = new NormalProjectileStrategy();
 
 
-    public Player(JSONObject playerInfo){
-        int x = ((Long)((JSONObject)(playerInfo.get("position"))).get("x")).intValue();
-        int y = ((Long)((JSONObject)(playerInfo.get("position"))).get("y")).intValue();
-
-        this.image = new Image(new File("src/main/resources/player.png").toURI().toString(), width, height, true, true);
-        this.position = new Vector2D(x,y);
-        this.health = ((Long) playerInfo.get("lives")).intValue();
-        this.velocity = ((Long) playerInfo.get("speed")).intValue();
+    public Player(GameConfig.PlayerConfig playerInfo){
+        this.image = SpriteCache.get("player.png", width, height);
+        this.position = new Vector2D(playerInfo.position().x(), playerInfo.position().y());
+        this.health = playerInfo.lives();
+        this.velocity = playerInfo.speed();
 
     }
 
@@ -69,15 +70,33 @@ public class Player implements Moveable, Renderable, Prototype {
     @Override
     public void left() {
         this.position.setX(this.position.getX() - this.velocity);
+        this.displacementX -= this.velocity;
     }
 
     @Override
     public void right() {
         this.position.setX(this.position.getX() + this.velocity);
+        this.displacementX += this.velocity;
+    }
+
+    /**
+     * Start a new tick with no movement, called by the engine before applying input
+     */
+    public void resetDisplacement() {
+        this.displacementX = 0;
+    }
+
+    @Override
+    public double getDisplacementX() {
+        return displacementX;
     }
 
     public Projectile shoot(){
-        return playerProjectileFactory.createProjectile(new Vector2D(this.position.getX() + 5 ,this.position.getY() - 10),new NormalProjectileStrategy(),null);
+        return playerProjectileFactory.createProjectile(this.position.getX() + 5, this.position.getY() - 10, shotStrategy, null);
+    }
+
+    public ProjectileFactory getProjectileFactory() {
+        return playerProjectileFactory;
     }
 
     @Override
@@ -99,6 +118,10 @@ public class Player implements Moveable, Renderable, Prototype {
         this.health = health;
     }
 
+    public double getVelocity() {
+        return velocity;
+    }
+
     @Override
     public Vector2D getPosition() {
         return position;
@@ -114,22 +137,20 @@ public class Player implements Moveable, Renderable, Prototype {
         return "Player";
     }
 
+    @Override
+    public int getCollisionCategory() {
+        return CollisionFilter.PLAYER;
+    }
+
     // Prototype design pattern
     /**
      * Copy player
      */
     @Override
     public Prototype copy() {
-        JSONObject playerInfoCopy = new JSONObject();
-
-
-        JSONObject positionCopy = new JSONObject();
-        positionCopy.put("x", (long) this.position.getX());
-        positionCopy.put("y", (long) this.position.getY());
-        playerInfoCopy.put("position", positionCopy);
-
-        playerInfoCopy.put("lives", (long) this.health);
-        playerInfoCopy.put("speed", (long) this.velocity);
+        GameConfig.PlayerConfig playerInfoCopy = new GameConfig.PlayerConfig(
+                new GameConfig.Position((int) this.position.getX(), (int) this.position.getY()),
+                (int) this.health, (int) this.velocity);
 
         Player copy = new Player(playerInfoCopy);
         return copy;
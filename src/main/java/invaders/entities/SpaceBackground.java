@@ -1,6 +1,7 @@
 package invaders.entities;
 
 import invaders.engine.GameEngine;
+import invaders.physics.CollisionFilter;
 import invaders.physics.Vector2D;
 import invaders.rendering.Renderable;
 
@@ -65,4 +66,9 @@ public class SpaceBackground implements Renderable {
 	public String getRenderableObjectName() {
 		return "background";
 	}
+
+	@Override
+	public int getCollisionCategory() {
+		return CollisionFilter.NONE;
+	}
 }
@@ -1,6 +1,8 @@
 package invaders.factory;
 
 import invaders.engine.GameEngine;
+import invaders.gameobject.Enemy;
+import invaders.physics.CollisionFilter;
 import invaders.physics.Vector2D;
 import invaders.prototype.Prototype;
 import invaders.strategy.FastProjectileStrategy;
@@ -11,16 +13,22 @@ import javafx.scene.image.Image;
 import java.io.File;
 
 public class EnemyProjectile extends Projectile {
-    private ProjectileStrategy strategy;
+    private Enemy owner;
 
     public EnemyProjectile(Vector2D position, ProjectileStrategy strategy, Image image) {
-        super(position,image);
-        this.strategy = strategy;
+        super(position,strategy,image);
     }
 
     @Override
     public void update(GameEngine model) {
-        strategy.update(this);
+        // spent shots leave the game, which frees a slot of their enemy
+        if (!this.isAlive()) {
+            model.getPendingToRemoveGameObject().add(this);
+            model.getPendingToRemoveRenderable().add(this);
+            return;
+        }
+
+        move();
 
         if(this.getPosition().getY()>= model.getGameHeight() - this.getImage().getHeight()) {
             this.takeDamage(1);
@@ -28,12 +36,24 @@ public class EnemyProjectile extends Projectile {
 
     }
 
-    public ProjectileStrategy getStrategy() {
-        return strategy;
+    /**
+     * The enemy that fired this projectile, null while pooled
+     */
+    public Enemy getOwner() {
+        return owner;
+    }
+
+    public void setOwner(Enemy owner) {
+        this.owner = owner;
     }
 
     @Override
     public String getRenderableObjectName() {
         return "EnemyProjectile";
     }
+
+    @Override
+    public int getCollisionCategory() {
+        return CollisionFilter.ENEMY_PROJECTILE;
+    }
 }
@@ -1,12 +1,41 @@
 package invaders.factory;
 
+import invaders.gameobject.Enemy;
 import invaders.physics.Vector2D;
 import invaders.strategy.ProjectileStrategy;
 import javafx.scene.image.Image;
 
 public class EnemyProjectileFactory implements ProjectileFactory{
+    private static final int POOL_CAPACITY = 256;
+    private final ProjectilePool pool = new ProjectilePool(POOL_CAPACITY);
+
+    @Override
+    public Projectile createProjectile(double x, double y, ProjectileStrategy strategy, Image image) {
+        Projectile projectile = pool.acquire();
+        if (projectile == null) {
+            return new EnemyProjectile(new Vector2D(x, y), strategy, image);
+        }
+        projectile.reset(x, y, strategy, image);
+        return projectile;
+    }
+
+    /**
+     * Pools a projectile that left the game. It is first taken out of the list of the
+     * enemy that fired it, so a reused projectile never counts against that enemy's cap.
+     */
     @Override
-    public Projectile createProjectile(Vector2D position, ProjectileStrategy strategy, Image image) {
-        return new EnemyProjectile(position,strategy,image);
+    public void release(Projectile projectile) {
+        EnemyProjectile enemyProjectile = (EnemyProjectile) projectile;
+        Enemy owner = enemyProjectile.getOwner();
+        if (owner != null) {
+            owner.removeProjectile(enemyProjectile);
+        }
+        // a pooled projectile must not keep its enemy reachable
+        enemyProjectile.setOwner(null);
+        pool.release(projectile);
+    }
+
+    public ProjectilePool getPool() {
+        return pool;
     }
 }
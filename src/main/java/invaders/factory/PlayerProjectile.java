@@ -1,23 +1,27 @@
 package invaders.factory;
 
 import invaders.engine.GameEngine;
+import invaders.physics.CollisionFilter;
 import invaders.physics.Vector2D;
 import invaders.prototype.Prototype;
+import invaders.rendering.SpriteCache;
 import invaders.strategy.ProjectileStrategy;
-import javafx.scene.image.Image;
-
-import java.io.File;
 
 public class PlayerProjectile extends Projectile implements Prototype {
-    private ProjectileStrategy strategy;
 
     public PlayerProjectile(Vector2D position, ProjectileStrategy strategy) {
-        super(position, new Image(new File("src/main/resources/player_shot.png").toURI().toString(), 10, 10, true, true));
-        this.strategy = strategy;
+        super(position, strategy, SpriteCache.get("player_shot.png", 10, 10));
     }
     @Override
     public void update(GameEngine model) {
-        strategy.update(this);
+        // spent shots leave the game so they can be reused
+        if (!this.isAlive()) {
+            model.getPendingToRemoveGameObject().add(this);
+            model.getPendingToRemoveRenderable().add(this);
+            return;
+        }
+
+        move();
 
         if(this.getPosition().getY() <= this.getImage().getHeight()){
             this.takeDamage(1);
@@ -28,9 +32,14 @@ public class PlayerProjectile extends Projectile implements Prototype {
         return "PlayerProjectile";
     }
 
+    @Override
+    public int getCollisionCategory() {
+        return CollisionFilter.PLAYER_PROJECTILE;
+    }
+
     @Override
     public Prototype copy() {
-        PlayerProjectile projectileCopy = new PlayerProjectile(new Vector2D(getPosition().getX(), getPosition().getY()), strategy);
+        PlayerProjectile projectileCopy = new PlayerProjectile(new Vector2D(getPosition().getX(), getPosition().getY()), getStrategy());
         return (Prototype) projectileCopy;
     }
 }
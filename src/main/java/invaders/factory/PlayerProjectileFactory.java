@@ -4,11 +4,26 @@ import invaders.physics.Vector2D;
 import invaders.strategy.ProjectileStrategy;
 import javafx.scene.image.Image;
 
-import java.io.File;
-
 public class PlayerProjectileFactory implements ProjectileFactory {
+    private static final int POOL_CAPACITY = 16;
+    private final ProjectilePool pool = new ProjectilePool(POOL_CAPACITY);
+
     @Override
-    public Projectile createProjectile(Vector2D position, ProjectileStrategy strategy, Image image) {
-        return new PlayerProjectile(new Vector2D(position.getX(),position.getY()),strategy);
+    public Projectile createProjectile(double x, double y, ProjectileStrategy strategy, Image image) {
+        Projectile projectile = pool.acquire();
+        if (projectile == null) {
+            return new PlayerProjectile(new Vector2D(x, y), strategy);
+        }
+        projectile.reset(x, y, strategy, projectile.getImage());
+        return projectile;
+    }
+
+    @Override
+    public void release(Projectile projectile) {
+        pool.release(projectile);
+    }
+
+    public ProjectilePool getPool() {
+        return pool;
     }
 }
@@ -1,22 +1,97 @@
 package invaders.factory;
 
 import invaders.gameobject.GameObject;
+import invaders.physics.Body;
 import invaders.physics.Collider;
+import invaders.physics.EntityStore;
 import invaders.physics.Vector2D;
 import invaders.prototype.Prototype;
 import invaders.rendering.Renderable;
+import invaders.strategy.ProjectileStrategy;
 import javafx.scene.image.Image;
 
-public abstract class Projectile implements Renderable, GameObject {
+/**
+ * A projectile. While it is in a game its position, size and health live in the
+ * engine's EntityStore, which also moves it, see Body.
+ */
+public abstract class Projectile implements Body, GameObject {
+    private static final double SIZE = 10;
+
     private int lives = 1;
     private Vector2D position;
-    private final Image image;
+    private Image image;
+    private int appearanceVersion = 0;
+    private ProjectileStrategy strategy;
+
+    // set while the projectile sits in a ProjectilePool
+    boolean pooled = false;
 
-    public Projectile(Vector2D position, Image image) {
+    // the slot that owns the state while the projectile is in a game, see Body
+    private EntityStore store = null;
+    private int slot = -1;
+
+    public Projectile(Vector2D position, ProjectileStrategy strategy, Image image) {
         this.position = position;
+        this.strategy = strategy;
         this.image = image;
     }
 
+    /**
+     * Reinitialise a recycled projectile as if it was newly created
+     */
+    void reset(double x, double y, ProjectileStrategy strategy, Image image) {
+        this.position.setX(x);
+        this.position.setY(y);
+        this.strategy = strategy;
+        if (this.image != image) {
+            this.image = image;
+            appearanceVersion++;
+        }
+        this.lives = 1;
+    }
+
+    public ProjectileStrategy getStrategy() {
+        return strategy;
+    }
+
+    @Override
+    public double getDisplacementX() {
+        return strategy.getDx();
+    }
+
+    @Override
+    public double getDisplacementY() {
+        return strategy.getDy();
+    }
+
+    @Override
+    public double getVelocityX() {
+        return strategy.getDx();
+    }
+
+    @Override
+    public double getVelocityY() {
+        return strategy.getDy();
+    }
+
+    /**
+     * Move by one tick of the strategy, unless the engine's store has already moved it this tick
+     */
+    protected void move() {
+        if (store == null) {
+            strategy.update(this);
+        }
+    }
+
+    @Override
+    public void bind(EntityStore store, int slot) {
+        if (store == null && this.store != null) {
+            lives = (int) this.store.getHealth(this.slot);
+        }
+        this.store = store;
+        this.slot = slot;
+    }
+
     @Override
     public Vector2D getPosition() {
         return position;
@@ -27,6 +102,11 @@ public abstract class Projectile implements Renderable, GameObject {
         return image;
     }
 
+    @Override
+    public int getAppearanceVersion() {
+        return appearanceVersion;
+    }
+
     @Override
     public Layer getLayer() {
         return Layer.FOREGROUND;
@@ -37,26 +117,30 @@ public abstract class Projectile implements Renderable, GameObject {
 
     @Override
     public double getWidth() {
-        return 10;
+        return store == null ? SIZE : store.getWidth(slot);
     }
 
     @Override
     public double getHeight() {
-        return 10;
+        return store == null ? SIZE : store.getHeight(slot);
     }
 
     @Override
     public void takeDamage(double amount) {
-        this.lives-=1;
+        if (store == null) {
+            this.lives-=1;
+        } else {
+            store.setHealth(slot, store.getHealth(slot) - 1);
+        }
     }
 
     @Override
     public double getHealth() {
-        return this.lives;
+        return store == null ? this.lives : store.getHealth(slot);
     }
 
     @Override
     public boolean isAlive() {
-        return this.lives>0;
+        return getHealth()>0;
     }
 }
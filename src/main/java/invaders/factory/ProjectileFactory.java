@@ -7,5 +7,14 @@ import javafx.scene.image.Image;
 import java.util.Vector;
 
 public interface ProjectileFactory {
-    public Projectile createProjectile(Vector2D position, ProjectileStrategy strategy, Image image);
+    public Projectile createProjectile(double x, double y, ProjectileStrategy strategy, Image image);
+
+    public default Projectile createProjectile(Vector2D position, ProjectileStrategy strategy, Image image) {
+        return createProjectile(position.getX(), position.getY(), strategy, image);
+    }
+
+    /**
+     * Hand back a projectile that has been removed from the game so it can be reused
+     */
+    public default void release(Projectile projectile) {}
 }
@@ -0,0 +1,64 @@
+package invaders.factory;
+
+import java.util.ArrayDeque;
+
+/**
+ * Bounded pool of dead projectiles waiting to be reused.
+ */
+public class ProjectilePool {
+    private final ArrayDeque<Projectile> free;
+    private final int capacity;
+    private long hits = 0;
+    private long misses = 0;
+
+    public ProjectilePool(int capacity) {
+        this.capacity = capacity;
+        this.free = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Take a pooled projectile, or null when the pool is empty
+     */
+    Projectile acquire() {
+        Projectile projectile = free.poll();
+        if (projectile == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        projectile.pooled = false;
+        return projectile;
+    }
+
+    /**
+     * Return a projectile that has left the game; ignored when full or already pooled
+     */
+    void release(Projectile projectile) {
+        if (projectile.pooled || free.size() >= capacity) {
+            return;
+        }
+        projectile.pooled = true;
+        free.push(projectile);
+    }
+
+    /**
+     * Number of acquisitions served from the pool
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Number of acquisitions that had to allocate a new projectile
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Number of projectiles currently waiting in the pool
+     */
+    public int size() {
+        return free.size();
+    }
+}
@@ -3,9 +3,11 @@ package invaders.gameobject;
 import invaders.builder.BunkerBuilder;
 import invaders.engine.GameEngine;
 import invaders.physics.Collider;
+import invaders.physics.CollisionFilter;
 import invaders.physics.Vector2D;
 import invaders.prototype.Prototype;
 import invaders.rendering.Renderable;
+import invaders.rendering.SpriteCache;
 import invaders.state.BunkerState;
 import invaders.state.GreenState;
 import invaders.state.RedState;
@@ -18,7 +20,9 @@ public class Bunker implements GameObject, Renderable, Prototype {
     private double height;
     private int lives;
     private Image image;
+    private int appearanceVersion = 0;
     private BunkerState state = new GreenState(this);
+    private int changes = 0; // see getStateVersion
 
 
     @Override
@@ -34,6 +38,7 @@ public class Bunker implements GameObject, Renderable, Prototype {
 
     public void setPosition(Vector2D position) {
         this.position = position;
+        changes++;
     }
 
     @Override
@@ -51,9 +56,15 @@ public class Bunker implements GameObject, Renderable, Prototype {
         return image;
     }
 
+    @Override
+    public int getAppearanceVersion() {
+        return appearanceVersion;
+    }
+
     @Override
     public void takeDamage(double amount){
         this.lives -= 1;
+        changes++;
         this.state.takeDamage();
     }
 
@@ -67,6 +78,11 @@ public class Bunker implements GameObject, Renderable, Prototype {
         return "Bunker";
     }
 
+    @Override
+    public int getCollisionCategory() {
+        return CollisionFilter.BUNKER;
+    }
+
     @Override
 	public boolean isAlive(){
 	    return this.lives > 0;
@@ -80,6 +96,8 @@ public class Bunker implements GameObject, Renderable, Prototype {
 
     public void setWidth(int width) {
         this.width = width;
+        appearanceVersion++;
+        changes++;
     }
 
     @Override
@@ -89,6 +107,8 @@ public class Bunker implements GameObject, Renderable, Prototype {
 
     public void setHeight(int height) {
         this.height = height;
+        appearanceVersion++;
+        changes++;
     }
 
     public int getLives() {
@@ -97,10 +117,14 @@ public class Bunker implements GameObject, Renderable, Prototype {
 
     public void setLives(int lives) {
         this.lives = lives;
+        changes++;
     }
 
     public void setImage(Image image) {
-        this.image = image;
+        if (this.image != image) {
+            this.image = image;
+            appearanceVersion++;
+        }
     }
 
     public BunkerState getState() {
@@ -109,6 +133,14 @@ public class Bunker implements GameObject, Renderable, Prototype {
 
     public void setState(BunkerState state) {
         this.state = state;
+        changes++;
+    }
+
+    /**
+     * Changes whenever anything a memento keeps of this bunker changes, see DeltaEncoder
+     */
+    public int getStateVersion() {
+        return changes + position.getVersion();
     }
 
     // Prototype design pattern
@@ -122,7 +154,7 @@ public class Bunker implements GameObject, Renderable, Prototype {
         builder.reset();
         builder.buildPosition(new Vector2D(position.getX(), position.getY()));
         builder.buildLives(lives);
-        builder.buildImage(new Image(image.getUrl(), 25, 25, true, true));
+        builder.buildImage(SpriteCache.getByUrl(image.getUrl(), 25, 25));
 
         Bunker bunkerCopy = (Bunker) builder.createGameObject();
 
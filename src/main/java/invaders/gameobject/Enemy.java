@@ -2,10 +2,11 @@ package invaders.gameobject;
 
 import invaders.engine.GameEngine;
 import invaders.factory.EnemyProjectile;
-import invaders.factory.EnemyProjectileFactory;
 import invaders.factory.Projectile;
-import invaders.factory.ProjectileFactory;
+import invaders.physics.Body;
 import invaders.physics.Collider;
+import invaders.physics.CollisionFilter;
+import invaders.physics.EntityStore;
 import invaders.physics.Vector2D;
 import invaders.prototype.Prototype;
 import invaders.rendering.Renderable;
@@ -17,26 +18,34 @@ import javafx.scene.image.Image;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
-public class Enemy implements GameObject, Renderable, Prototype {
+/**
+ * An enemy of the formation. While it is in a game its position, size and health
+ * live in the engine's EntityStore, see Body.
+ */
+public class Enemy implements GameObject, Body, Prototype {
+    public static final int MAX_PROJECTILES = 3;
+
     private Vector2D position;
     private int lives = 1;
     private Image image;
+    private int appearanceVersion = 0;
     private int xVel = -1;
+    // the step Formation applied this tick, for swept collision
+    private double stepX = 0;
+    private double stepY = 0;
+    private int changes = 0; // see getStateVersion
+    // the slot that owns the state while the enemy is in a game, see Body
+    private EntityStore store = null;
+    private int slot = -1;
 
     private ArrayList<Projectile> enemyProjectile;
-    private ArrayList<Projectile> pendingToDeleteEnemyProjectile;
     private ProjectileStrategy projectileStrategy;
-    private ProjectileFactory projectileFactory;
     private Image projectileImage;
-    private Random random = new Random();
 
     public Enemy(Vector2D position) {
         this.position = position;
-        this.projectileFactory = new EnemyProjectileFactory();
         this.enemyProjectile = new ArrayList<>();
-        this.pendingToDeleteEnemyProjectile = new ArrayList<>();
     }
 
     @Override
@@ -44,43 +53,44 @@ public class Enemy implements GameObject, Renderable, Prototype {
 
     @Override
     public void update(GameEngine engine) {
-        if(enemyProjectile.size()<3){
-            if(this.isAlive() &&  random.nextInt(120)==20){
-                Projectile p = projectileFactory.createProjectile(new Vector2D(position.getX() + this.image.getWidth() / 2, position.getY() + image.getHeight() + 2),projectileStrategy, projectileImage);
-                enemyProjectile.add(p);
-                engine.getPendingToAddGameObject().add(p);
-                engine.getPendingToAddRenderable().add(p);
-            }
-        }else{
-            pendingToDeleteEnemyProjectile.clear();
-            for(Projectile p : enemyProjectile){
-                if(!p.isAlive()){
-                    engine.getPendingToRemoveGameObject().add(p);
-                    engine.getPendingToRemoveRenderable().add(p);
-                    pendingToDeleteEnemyProjectile.add(p);
-                }
-            }
-
-            for(Projectile p: pendingToDeleteEnemyProjectile){
-                enemyProjectile.remove(p);
-            }
-        }
+        // firing is scheduled by the engine and movement is done by Formation
+    }
 
-        if(this.position.getX()<=this.image.getWidth() || this.position.getX()>=(engine.getGameWidth()-this.image.getWidth()-1)){
-            this.position.setY(this.position.getY()+25);
-            xVel*=-1;
-        }
+    /**
+     * Fires one projectile, called by the engine when this enemy's shot is due
+     * @return whether the enemy can fire again
+     */
+    public boolean fire(GameEngine engine) {
+        EnemyProjectile p = (EnemyProjectile) engine.getEnemyProjectileFactory().createProjectile(position.getX() + this.image.getWidth() / 2, position.getY() + image.getHeight() + 2, projectileStrategy, projectileImage);
+        p.setOwner(this);
+        enemyProjectile.add(p);
+        changes++;
+        engine.getPendingToAddGameObject().add(p);
+        engine.getPendingToAddRenderable().add(p);
+        return canFire();
+    }
 
-        this.position.setX(this.position.getX() + xVel);
+    /**
+     * Whether the enemy is alive and has fewer than MAX_PROJECTILES shots in flight
+     */
+    public boolean canFire() {
+        return isAlive() && enemyProjectile.size() < MAX_PROJECTILES;
+    }
 
-        if((this.position.getY()+this.image.getHeight())>=engine.getPlayer().getPosition().getY()){
-            engine.getPlayer().takeDamage(Integer.MAX_VALUE);
+    /**
+     * Forgets a projectile that has left the game
+     * @return whether this opened a slot in a full list, so the enemy needs a new shot scheduled
+     */
+    public boolean removeProjectile(Projectile projectile) {
+        int index = enemyProjectile.indexOf(projectile);
+        if (index < 0) {
+            return false;
         }
-
-        /*
-        Logic TBD
-         */
-
+        boolean wasFull = enemyProjectile.size() == MAX_PROJECTILES;
+        // at most MAX_PROJECTILES long, so keeping the firing order costs nothing
+        enemyProjectile.remove(index);
+        changes++;
+        return wasFull;
     }
 
     @Override
@@ -88,14 +98,19 @@ public class Enemy implements GameObject, Renderable, Prototype {
         return this.image;
     }
 
+    @Override
+    public int getAppearanceVersion() {
+        return appearanceVersion;
+    }
+
     @Override
     public double getWidth() {
-        return this.image.getWidth();
+        return store == null ? this.image.getWidth() : store.getWidth(slot);
     }
 
     @Override
     public double getHeight() {
-       return this.image.getHeight();
+       return store == null ? this.image.getHeight() : store.getHeight(slot);
     }
 
     @Override
@@ -109,29 +124,98 @@ public class Enemy implements GameObject, Renderable, Prototype {
     }
 
     public void setPosition(Vector2D position) {
+        if (store != null) {
+            throw new IllegalStateException("Enemy position cannot be replaced while it is in a game");
+        }
         this.position = position;
+        changes++;
     }
 
     public void setLives(int lives) {
-        this.lives = lives;
+        if (store == null) {
+            this.lives = lives;
+        } else {
+            store.setHealth(slot, lives);
+        }
+        changes++;
     }
 
     public void setImage(Image image) {
-        this.image = image;
+        if (this.image != image) {
+            this.image = image;
+            appearanceVersion++;
+            changes++;
+            if (store != null) {
+                store.setSize(slot, image.getWidth(), image.getHeight());
+            }
+        }
     }
 
     public void setProjectileImage(Image projectileImage) {
         this.projectileImage = projectileImage;
+        changes++;
+    }
+
+    public Image getProjectileImage() {
+        return projectileImage;
+    }
+
+    public int getXVel() {
+        return xVel;
+    }
+
+    public void setXVel(int xVel) {
+        this.xVel = xVel;
+    }
+
+    /**
+     * Moves the enemy by one formation step, remembered as this tick's displacement
+     */
+    public void step(double dx, double dy) {
+        if (store != null) {
+            store.step(slot, dx, dy);
+            return;
+        }
+        position.setX(position.getX() + dx);
+        position.setY(position.getY() + dy);
+        stepX = dx;
+        stepY = dy;
+    }
+
+    @Override
+    public double getDisplacementX() {
+        return store == null ? stepX : store.getStepX(slot);
+    }
+
+    @Override
+    public double getDisplacementY() {
+        return store == null ? stepY : store.getStepY(slot);
     }
 
     @Override
     public void takeDamage(double amount) {
-        this.lives-=1;
+        if (store == null) {
+            this.lives-=1;
+        } else {
+            store.setHealth(slot, store.getHealth(slot) - 1);
+        }
+        changes++;
     }
 
     @Override
     public double getHealth() {
-        return this.lives;
+        return store == null ? this.lives : store.getHealth(slot);
+    }
+
+    @Override
+    public void bind(EntityStore store, int slot) {
+        if (store == null && this.store != null) {
+            lives = (int) this.store.getHealth(this.slot);
+            stepX = this.store.getStepX(this.slot);
+            stepY = this.store.getStepY(this.slot);
+        }
+        this.store = store;
+        this.slot = slot;
     }
 
     @Override
@@ -139,17 +223,31 @@ public class Enemy implements GameObject, Renderable, Prototype {
         return "Enemy";
     }
 
+    @Override
+    public int getCollisionCategory() {
+        return CollisionFilter.ENEMY;
+    }
+
     public ProjectileStrategy getProjectileStrategy() {
         return projectileStrategy;
     }
 
     @Override
     public boolean isAlive() {
-        return this.lives>0;
+        return getHealth()>0;
     }
 
     public void setProjectileStrategy(ProjectileStrategy projectileStrategy) {
         this.projectileStrategy = projectileStrategy;
+        changes++;
+    }
+
+    /**
+     * Changes whenever lives, projectiles, strategy or images change, see DeltaEncoder.
+     * Position and xVel are left out: Formation changes them for every member each tick.
+     */
+    public int getStateVersion() {
+        return changes;
     }
 
     public ArrayList<Projectile> getEnemyProjectile() {
@@ -164,7 +262,7 @@ public class Enemy implements GameObject, Renderable, Prototype {
     public Prototype copy() {
         // deep copy
         Enemy enemyCopy = new Enemy(new Vector2D(position.getX(), position.getY()));
-        enemyCopy.lives = lives;
+        enemyCopy.lives = (int) getHealth();
         enemyCopy.xVel = xVel;
         enemyCopy.image = image;
         enemyCopy.projectileImage = projectileImage;
@@ -172,12 +270,11 @@ public class Enemy implements GameObject, Renderable, Prototype {
 
         enemyCopy.enemyProjectile = new ArrayList<>();
         for (Projectile projectile : enemyProjectile) {
-            EnemyProjectileFactory enemyProjectileFactory = new EnemyProjectileFactory();
-            Projectile projectileCopy = enemyProjectileFactory.createProjectile(new Vector2D(projectile.getPosition().getX(), projectile.getPosition().getY()), projectileStrategy, projectileImage);
+            EnemyProjectile projectileCopy = new EnemyProjectile(new Vector2D(projectile.getPosition().getX(), projectile.getPosition().getY()), projectileStrategy, projectileImage);
+            projectileCopy.setOwner(enemyCopy);
             enemyCopy.enemyProjectile.add(projectileCopy);
         }
 
-        enemyCopy.random = new Random();
         return enemyCopy;
     }
 }
@@ -0,0 +1,92 @@
+package invaders.gameobject;
+
+import invaders.engine.GameEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves all enemies of a level as one block.
+ *
+ * The bounding box of the living members is computed once per tick; when it reaches
+ * a screen edge the whole formation steps down and turns around together, so
+ * members never drift apart. Enemies only decide when to fire.
+ */
+public class Formation implements GameObject {
+    private static final int DESCENT = 25;
+
+    private final List<Enemy> members;
+    private int xVel;
+    // total distance the living members have been moved, see DeltaEncoder
+    private double offsetX = 0;
+    private double offsetY = 0;
+
+    public Formation(List<Enemy> members) {
+        this.members = new ArrayList<>(members);
+        this.xVel = members.isEmpty() ? -1 : members.get(0).getXVel();
+    }
+
+    @Override
+    public void start() {}
+
+    /**
+     * Steps the living members together; dead members are left where they fell
+     */
+    @Override
+    public void update(GameEngine engine) {
+        // bounding box of the living members, widened by each member's width as the old per-enemy check was
+        double left = Double.POSITIVE_INFINITY;
+        double right = Double.NEGATIVE_INFINITY;
+        for (Enemy enemy : members) {
+            if (enemy.isAlive()) {
+                double x = enemy.getPosition().getX();
+                left = Math.min(left, x - enemy.getWidth());
+                right = Math.max(right, x + enemy.getWidth());
+            }
+        }
+        if (left == Double.POSITIVE_INFINITY) {
+            return;
+        }
+
+        boolean turn = left <= 0 || right >= engine.getGameWidth() - 1;
+        if (turn) {
+            xVel *= -1;
+        }
+        int descent = turn ? DESCENT : 0;
+        offsetX += xVel;
+        offsetY += descent;
+
+        double bottom = Double.NEGATIVE_INFINITY;
+        for (Enemy enemy : members) {
+            if (!enemy.isAlive()) {
+                continue;
+            }
+            enemy.step(xVel, descent);
+            if (turn) {
+                // members keep the shared velocity so mementos and copies carry it
+                enemy.setXVel(xVel);
+            }
+            bottom = Math.max(bottom, enemy.getPosition().getY() + enemy.getHeight());
+        }
+
+        if (bottom >= engine.getPlayer().getPosition().getY()) {
+            engine.getPlayer().takeDamage(Integer.MAX_VALUE);
+        }
+    }
+
+    public List<Enemy> getMembers() {
+        return members;
+    }
+
+    public int getXVel() {
+        return xVel;
+    }
+
+    public double getOffsetX() {
+        return offsetX;
+    }
+
+    public double getOffsetY() {
+        return offsetY;
+    }
+}
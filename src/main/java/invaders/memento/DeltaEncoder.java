@@ -0,0 +1,174 @@
+package invaders.memento;
+
+import invaders.factory.Projectile;
+import invaders.gameobject.Bunker;
+import invaders.gameobject.Enemy;
+import invaders.gameobject.Formation;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes the mementos of one game engine, most of them as deltas of a keyframe.
+ *
+ * A keyframe is a FULL record of the game. Afterwards only the entities that changed
+ * since the keyframe are written, found by comparing state versions and positions
+ * kept when the keyframe was taken. An enemy that only moved with the formation is
+ * left out; the delta carries the formation's shift, which is applied to every
+ * enemy it does not list. A new keyframe is taken when the formation or bunkers are
+ * replaced, as by a restore, or once a delta would list over half of the keyframe.
+ */
+public final class DeltaEncoder {
+    private ByteBuffer buffer = ByteBuffer.allocate(0); // reused to encode, then copied out at its exact size
+
+    private byte[] keyframe = null;
+    private Formation keyFormation = null;
+    private List<Bunker> keyBunkers = null;
+    private int keyEntities = 0;
+    private double keyOffsetX = 0;
+    private double keyOffsetY = 0;
+
+    // per formation member: keyframe slot (-1 if dead at the keyframe), version and position then
+    private int[] enemySlots = new int[0];
+    private int[] enemyVersions = new int[0];
+    private double[] enemyX = new double[0];
+    private double[] enemyY = new double[0];
+    // per bunker: keyframe slot and version then
+    private int[] bunkerSlots = new int[0];
+    private int[] bunkerVersions = new int[0];
+
+    // members and bunkers listed by the delta being written
+    private int[] changedEnemies = new int[0];
+    private int[] changedBunkers = new int[0];
+
+    /**
+     * Encode a memento of the live state; the enemies of the snapshot must be the members of the formation
+     */
+    public GameEngineMemento save(Snapshot live, Formation formation, Projectile shot) {
+        if (keyframe == null || formation != keyFormation || live.bunkers() != keyBunkers) {
+            return saveKeyframe(live, formation, shot);
+        }
+
+        double shiftX = formation.getOffsetX() - keyOffsetX;
+        double shiftY = formation.getOffsetY() - keyOffsetY;
+        int xVel = formation.getXVel();
+
+        List<Enemy> enemies = live.enemies();
+        int enemyCount = 0;
+        int size = MementoCodec.MAX_HEADER + MementoCodec.MAX_FORMATION + 2 * MementoCodec.MAX_VARINT;
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemySlots[i] < 0) {
+                continue; // dead at the keyframe, and enemies do not come back
+            }
+            Enemy enemy = enemies.get(i);
+            if (enemy.getStateVersion() != enemyVersions[i] || !enemy.getEnemyProjectile().isEmpty()
+                    || enemy.getXVel() != xVel
+                    || enemy.getPosition().getX() != enemyX[i] + shiftX
+                    || enemy.getPosition().getY() != enemyY[i] + shiftY) {
+                changedEnemies[enemyCount++] = i;
+                size += MementoCodec.MAX_VARINT + MementoCodec.maxSize(enemy);
+            }
+        }
+
+        List<Bunker> bunkers = live.bunkers();
+        int bunkerCount = 0;
+        for (int i = 0; i < bunkers.size(); i++) {
+            if (bunkerSlots[i] >= 0 && bunkers.get(i).getStateVersion() != bunkerVersions[i]) {
+                changedBunkers[bunkerCount++] = i;
+                size += MementoCodec.MAX_VARINT + MementoCodec.MAX_BUNKER;
+            }
+        }
+
+        if (enemyCount + bunkerCount > keyEntities / 2) {
+            return saveKeyframe(live, formation, shot);
+        }
+
+        ByteBuffer out = buffer(size);
+        MementoCodec.putHeader(out, MementoCodec.DELTA, live.score(), live.timer(), live.player());
+        MementoCodec.putCoord(out, shiftX, 0);
+        MementoCodec.putCoord(out, shiftY, 0);
+        MementoCodec.putVarLong(out, MementoCodec.zigzag(xVel));
+
+        double lastX = 0;
+        double lastY = 0;
+        MementoCodec.putVarLong(out, bunkerCount);
+        for (int c = 0; c < bunkerCount; c++) {
+            int i = changedBunkers[c];
+            Bunker bunker = bunkers.get(i);
+            MementoCodec.putVarLong(out, bunkerSlots[i]);
+            MementoCodec.putBunker(out, bunker, lastX, lastY);
+            lastX = bunker.getPosition().getX();
+            lastY = bunker.getPosition().getY();
+        }
+
+        lastX = 0;
+        lastY = 0;
+        MementoCodec.putVarLong(out, enemyCount);
+        for (int c = 0; c < enemyCount; c++) {
+            int i = changedEnemies[c];
+            Enemy enemy = enemies.get(i);
+            MementoCodec.putVarLong(out, enemySlots[i]);
+            MementoCodec.putEnemy(out, enemy, lastX, lastY);
+            lastX = enemy.getPosition().getX();
+            lastY = enemy.getPosition().getY();
+        }
+
+        return new GameEngineMemento(Arrays.copyOf(out.array(), out.position()), keyframe, shot);
+    }
+
+    private GameEngineMemento saveKeyframe(Snapshot live, Formation formation, Projectile shot) {
+        ByteBuffer out = buffer(MementoCodec.maxSize(live));
+        MementoCodec.encode(live, out);
+        keyframe = Arrays.copyOf(out.array(), out.position());
+        keyFormation = formation;
+        keyBunkers = live.bunkers();
+        keyOffsetX = formation.getOffsetX();
+        keyOffsetY = formation.getOffsetY();
+
+        // slots number the living entities in the order MementoCodec wrote them
+        List<Enemy> enemies = live.enemies();
+        int n = enemies.size();
+        if (enemySlots.length < n) {
+            enemySlots = new int[n];
+            enemyVersions = new int[n];
+            enemyX = new double[n];
+            enemyY = new double[n];
+            changedEnemies = new int[n];
+        }
+        int slot = 0;
+        for (int i = 0; i < n; i++) {
+            Enemy enemy = enemies.get(i);
+            enemySlots[i] = enemy.isAlive() ? slot++ : -1;
+            enemyVersions[i] = enemy.getStateVersion();
+            enemyX[i] = enemy.getPosition().getX();
+            enemyY[i] = enemy.getPosition().getY();
+        }
+        keyEntities = slot;
+
+        List<Bunker> bunkers = live.bunkers();
+        n = bunkers.size();
+        if (bunkerSlots.length < n) {
+            bunkerSlots = new int[n];
+            bunkerVersions = new int[n];
+            changedBunkers = new int[n];
+        }
+        slot = 0;
+        for (int i = 0; i < n; i++) {
+            Bunker bunker = bunkers.get(i);
+            bunkerSlots[i] = bunker.isAlive() ? slot++ : -1;
+            bunkerVersions[i] = bunker.getStateVersion();
+        }
+        keyEntities += slot;
+
+        return new GameEngineMemento(keyframe, shot);
+    }
+
+    private ByteBuffer buffer(int size) {
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        return buffer;
+    }
+}
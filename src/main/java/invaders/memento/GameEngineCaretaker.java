@@ -4,29 +4,112 @@ import invaders.engine.GameEngine;
 
 /**
  * Caretaker/Manager of the GameEngine memento
+ *
+ * Keeps a bounded history of encoded mementos; once full, the oldest memento is overwritten.
  */
 public class GameEngineCaretaker {
-    private GameEngineMemento gameEngineHistory = null;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final GameEngineMemento[] gameEngineHistory;
+    private int newest = -1;
+    private int size = 0;
+
+    public GameEngineCaretaker() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public GameEngineCaretaker(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        gameEngineHistory = new GameEngineMemento[capacity];
+    }
 
     /**
      * Save a memento from game engine
      */
     public void saveGameEngine(GameEngine game) {
-
-        // Single memento
         GameEngineMemento memento = game.save();
-        gameEngineHistory = memento;
+
+        newest = (newest + 1) % gameEngineHistory.length;
+        gameEngineHistory[newest] = memento;
+        size = Math.min(size + 1, gameEngineHistory.length);
     }
 
     /**
-     * Restore game engine state from memento
+     * Restore game engine state from the latest memento
      */
     public void revertGameEngine(GameEngine game) {
-        if (gameEngineHistory == null) {
+        revertGameEngine(game, 1);
+    }
+
+    /**
+     * Restore game engine state from the given number of saves back;
+     * the oldest memento stays available for further reverts
+     */
+    public void revertGameEngine(GameEngine game, int steps) {
+        if (size == 0) {
             System.out.println("No previous state to revert to.");
-        } else {
-            game.restore(gameEngineHistory);
-//            gameEngineHistory = null;
+            return;
+        }
+        for (int i = 1; i < steps && size > 1; i++) {
+            drop();
+        }
+        game.restore(gameEngineHistory[newest]);
+        if (size > 1) {
+            drop();
+        }
+    }
+
+    private void drop() {
+        gameEngineHistory[newest] = null;
+        newest = (newest - 1 + gameEngineHistory.length) % gameEngineHistory.length;
+        size--;
+    }
+
+    /**
+     * get the latest memento, or null if nothing is saved
+     */
+    public GameEngineMemento getLatest() {
+        return size == 0 ? null : gameEngineHistory[newest];
+    }
+
+    /**
+     * get number of mementos held
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * get encoded bytes of the mementos currently held, counting each shared keyframe once
+     */
+    public long getBytesUsed() {
+        long bytes = 0;
+        for (int i = 0; i < size; i++) {
+            GameEngineMemento memento = gameEngineHistory[index(i)];
+            bytes += memento.getBytes();
+            byte[] keyframe = memento.keyframe();
+            if (keyframe != null && !holds(keyframe, i)) {
+                bytes += keyframe.length;
+            }
+        }
+        return bytes;
+    }
+
+    // whether a keyframe is the state of a held memento, or of a delta before the given one
+    private boolean holds(byte[] keyframe, int before) {
+        for (int i = 0; i < size; i++) {
+            GameEngineMemento memento = gameEngineHistory[index(i)];
+            if (memento.state() == keyframe || (i < before && memento.keyframe() == keyframe)) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    // the i-th newest memento
+    private int index(int i) {
+        return (newest - i + gameEngineHistory.length) % gameEngineHistory.length;
     }
 }
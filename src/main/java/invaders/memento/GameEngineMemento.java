@@ -1,37 +1,40 @@
 package invaders.memento;
 
-import invaders.entities.Player;
-import invaders.factory.EnemyProjectile;
-import invaders.factory.PlayerProjectile;
 import invaders.factory.Projectile;
-import invaders.gameobject.Bunker;
-import invaders.gameobject.Enemy;
 
-import java.util.*;
+import java.nio.ByteBuffer;
 
 /**
  * Game engine memento that contains the specific contents
+ *
+ * The state is held encoded by MementoCodec and shares nothing with the live game;
+ * restoring decodes new entities from it. Most mementos only hold the entities that
+ * changed since a keyframe, which they share with the keyframe's own memento.
  */
 public class GameEngineMemento {
-    private int score;
-    private int timer;
-    private List<Enemy> enemies;
-    private List<Bunker> bunkers;
-    private Player player;
-    private Projectile shot;
+    private final byte[] state;
+    private final byte[] keyframe;
+    private final Projectile shot;
 
     /**
      * GameEngineMemento constructor:
      *
-     * pass in all relevant details of game engine to save
+     * pass in the encoded state and the player's previous shot, which is live-object
+     * identity and so is kept beside the state rather than in it
      */
-    public GameEngineMemento(int score, int timer, List<Enemy> enemies, List<Bunker> bunkers, Projectile shot, Player player) {
-        this.score = score;
-        this.timer = timer;
-        this.enemies = enemies;
-        this.bunkers = bunkers;
+    public GameEngineMemento(byte[] state, Projectile shot) {
+        this(state, null, shot);
+    }
+
+    /**
+     * GameEngineMemento constructor:
+     *
+     * pass in an encoded delta and the encoded keyframe it applies to
+     */
+    public GameEngineMemento(byte[] state, byte[] keyframe, Projectile shot) {
+        this.state = state;
+        this.keyframe = keyframe;
         this.shot = shot;
-        this.player = player;
     }
 
     /**
@@ -42,38 +45,32 @@ public class GameEngineMemento {
     }
 
     /**
-     * get memento game points
+     * get the encoded state, see MementoCodec.decode
      */
-    public int getScore() {
-        return score;
+    public ByteBuffer getState() {
+        return ByteBuffer.wrap(state).asReadOnlyBuffer();
     }
 
     /**
-     * get memento game timer
+     * get the encoded keyframe the state is a delta of, or null if the state is full
      */
-    public int getTimer() {
-        return timer;
+    public ByteBuffer getKeyframe() {
+        return keyframe == null ? null : ByteBuffer.wrap(keyframe).asReadOnlyBuffer();
     }
 
     /**
-     * get memento enemy list
+     * get size of the encoded state, without the keyframe it shares
      */
-    public List<Enemy> getEnemies() {
-        return enemies;
+    public int getBytes() {
+        return state.length;
     }
 
-    /**
-     * get memento player
-     */
-    public Player getPlayer() {
-        return player;
+    byte[] state() {
+        return state;
     }
 
-    /**
-     * get memento bunker list
-     */
-    public List<Bunker> getBunkers() {
-        return bunkers;
+    byte[] keyframe() {
+        return keyframe;
     }
 
 }
@@ -0,0 +1,488 @@
+package invaders.memento;
+
+import invaders.GameConfig;
+import invaders.builder.BunkerBuilder;
+import invaders.builder.EnemyBuilder;
+import invaders.entities.Player;
+import invaders.factory.EnemyProjectile;
+import invaders.factory.Projectile;
+import invaders.gameobject.Bunker;
+import invaders.gameobject.Enemy;
+import invaders.physics.Vector2D;
+import invaders.rendering.Renderable;
+import invaders.rendering.SpriteCache;
+import invaders.state.BunkerState;
+import invaders.state.GreenState;
+import invaders.state.RedState;
+import invaders.state.YellowState;
+import invaders.strategy.FastProjectileStrategy;
+import invaders.strategy.ProjectileStrategy;
+import invaders.strategy.SlowProjectileStrategy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versioned binary encoding of the state a GameEngineMemento keeps.
+ *
+ * Layout (version 2), all integers as zigzag varints:
+ * magic, version byte, kind byte, score, timer, player (x, y, health, speed), then
+ * for a FULL record:
+ * bunker count, then per bunker (x, y, width, height, lives, state byte),
+ * enemy count, then per enemy (x, y, lives, xVel, strategy byte, projectile count,
+ * projectile x, y relative to the enemy);
+ * for a DELTA record, see DeltaEncoder:
+ * formation shift x, y and xVel since the keyframe,
+ * changed bunker count, then per bunker (slot, bunker as above),
+ * changed enemy count, then per enemy (slot, enemy as above).
+ * A slot is the index of the entity in its keyframe; enemies that are not listed only
+ * moved with the formation. Only living bunkers and enemies are written to a FULL record.
+ *
+ * Coordinates are delta-encoded against the previous entity of the same kind; a
+ * coordinate whose delta is not a whole number is stored as a raw double instead.
+ * The player's previous shot is live-object identity and is not encoded.
+ */
+public final class MementoCodec {
+    public static final int MAGIC = 0x53494D4D; // "SIMM"
+    public static final byte VERSION = 2;
+
+    static final byte FULL = 0;
+    static final byte DELTA = 1;
+
+    static final int MAX_VARINT = 10;
+    private static final int MAX_COORD = 1 + 8 + MAX_VARINT;
+    static final int MAX_HEADER = 4 + 1 + 1 + 2 * MAX_VARINT + 4 * MAX_COORD;
+    static final int MAX_BUNKER = 4 * MAX_COORD + MAX_VARINT + 1;
+    static final int MAX_FORMATION = 2 * MAX_COORD + MAX_VARINT;
+
+    private static final byte STRATEGY_NONE = 0;
+    private static final byte STRATEGY_SLOW = 1;
+    private static final byte STRATEGY_FAST = 2;
+
+    private static final byte STATE_GREEN = 0;
+    private static final byte STATE_YELLOW = 1;
+    private static final byte STATE_RED = 2;
+
+    private MementoCodec() {}
+
+    /**
+     * Encode a snapshot into a new buffer, positioned at 0
+     */
+    public static ByteBuffer encode(Snapshot snapshot) {
+        ByteBuffer buffer = ByteBuffer.allocate(maxSize(snapshot));
+        encode(snapshot, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Encode a snapshot as a FULL record into the buffer at its current position,
+     * which must have maxSize bytes left
+     */
+    public static void encode(Snapshot snapshot, ByteBuffer buffer) {
+        putHeader(buffer, FULL, snapshot.score(), snapshot.timer(), snapshot.player());
+
+        double lastX = 0;
+        double lastY = 0;
+        putVarLong(buffer, countLiving(snapshot.bunkers()));
+        for (Bunker bunker : snapshot.bunkers()) {
+            if (!bunker.isAlive()) {
+                continue;
+            }
+            putBunker(buffer, bunker, lastX, lastY);
+            lastX = bunker.getPosition().getX();
+            lastY = bunker.getPosition().getY();
+        }
+
+        lastX = 0;
+        lastY = 0;
+        putVarLong(buffer, countLiving(snapshot.enemies()));
+        for (Enemy enemy : snapshot.enemies()) {
+            if (!enemy.isAlive()) {
+                continue;
+            }
+            putEnemy(buffer, enemy, lastX, lastY);
+            lastX = enemy.getPosition().getX();
+            lastY = enemy.getPosition().getY();
+        }
+    }
+
+    /**
+     * Decode a snapshot of new entities from a FULL record at the buffer's current position
+     * @throws IllegalArgumentException if the buffer does not hold a FULL memento of this version
+     */
+    public static Snapshot decode(ByteBuffer buffer) {
+        if (getHeader(buffer) != FULL) {
+            throw new IllegalArgumentException("Delta memento decoded without its keyframe");
+        }
+        int score = (int) unzigzag(getVarLong(buffer));
+        int timer = (int) unzigzag(getVarLong(buffer));
+        Player player = getPlayer(buffer);
+
+        double lastX = 0;
+        double lastY = 0;
+        int bunkerCount = (int) getVarLong(buffer);
+        List<Bunker> bunkers = new ArrayList<>(bunkerCount);
+        BunkerBuilder bunkerBuilder = new BunkerBuilder();
+        for (int i = 0; i < bunkerCount; i++) {
+            Bunker bunker = getBunker(buffer, bunkerBuilder, lastX, lastY);
+            bunkers.add(bunker);
+            lastX = bunker.getPosition().getX();
+            lastY = bunker.getPosition().getY();
+        }
+
+        lastX = 0;
+        lastY = 0;
+        int enemyCount = (int) getVarLong(buffer);
+        List<Enemy> enemies = new ArrayList<>(enemyCount);
+        EnemyBuilder enemyBuilder = new EnemyBuilder();
+        for (int i = 0; i < enemyCount; i++) {
+            Enemy enemy = getEnemy(buffer, enemyBuilder, lastX, lastY);
+            enemies.add(enemy);
+            lastX = enemy.getPosition().getX();
+            lastY = enemy.getPosition().getY();
+        }
+
+        return new Snapshot(score, timer, player, bunkers, enemies);
+    }
+
+    /**
+     * Decode a snapshot of new entities from a memento, applying a delta to its keyframe
+     * @throws IllegalArgumentException if the memento is not of this version or is malformed
+     */
+    public static Snapshot decode(GameEngineMemento memento) {
+        ByteBuffer keyframe = memento.getKeyframe();
+        if (keyframe == null) {
+            return decode(memento.getState());
+        }
+        Snapshot base = decode(keyframe);
+        ByteBuffer buffer = memento.getState();
+        if (getHeader(buffer) != DELTA) {
+            throw new IllegalArgumentException("Keyframe given for a full memento");
+        }
+        int score = (int) unzigzag(getVarLong(buffer));
+        int timer = (int) unzigzag(getVarLong(buffer));
+        Player player = getPlayer(buffer);
+        double shiftX = getCoord(buffer, 0);
+        double shiftY = getCoord(buffer, 0);
+        int xVel = (int) unzigzag(getVarLong(buffer));
+
+        List<Bunker> bunkers = base.bunkers();
+        double lastX = 0;
+        double lastY = 0;
+        int changed = (int) getVarLong(buffer);
+        BunkerBuilder bunkerBuilder = new BunkerBuilder();
+        for (int i = 0; i < changed; i++) {
+            int slot = getSlot(buffer, bunkers.size());
+            Bunker bunker = getBunker(buffer, bunkerBuilder, lastX, lastY);
+            bunkers.set(slot, bunker);
+            lastX = bunker.getPosition().getX();
+            lastY = bunker.getPosition().getY();
+        }
+
+        List<Enemy> enemies = base.enemies();
+        boolean[] listed = new boolean[enemies.size()];
+        lastX = 0;
+        lastY = 0;
+        changed = (int) getVarLong(buffer);
+        EnemyBuilder enemyBuilder = new EnemyBuilder();
+        for (int i = 0; i < changed; i++) {
+            int slot = getSlot(buffer, enemies.size());
+            Enemy enemy = getEnemy(buffer, enemyBuilder, lastX, lastY);
+            enemies.set(slot, enemy);
+            listed[slot] = true;
+            lastX = enemy.getPosition().getX();
+            lastY = enemy.getPosition().getY();
+        }
+        for (int slot = 0; slot < listed.length; slot++) {
+            if (!listed[slot]) {
+                Enemy enemy = enemies.get(slot);
+                Vector2D position = enemy.getPosition();
+                position.setX(position.getX() + shiftX);
+                position.setY(position.getY() + shiftY);
+                enemy.setXVel(xVel);
+            }
+        }
+
+        // entities that died since the keyframe are listed with no lives left
+        bunkers.removeIf(bunker -> !bunker.isAlive());
+        enemies.removeIf(enemy -> !enemy.isAlive());
+        return new Snapshot(score, timer, player, bunkers, enemies);
+    }
+
+    /**
+     * Write a snapshot to a file through a memory mapping
+     */
+    public static void write(Path path, Snapshot snapshot) throws IOException {
+        ByteBuffer encoded = encode(snapshot);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, encoded.remaining());
+            mapped.put(encoded);
+            mapped.force();
+        }
+    }
+
+    /**
+     * Read a snapshot from a file through a memory mapping
+     */
+    public static Snapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(mapped);
+        }
+    }
+
+    /**
+     * Upper bound of the encoded size, so encoding never has to grow the buffer
+     */
+    public static int maxSize(Snapshot snapshot) {
+        int size = MAX_HEADER + 2 * MAX_VARINT + snapshot.bunkers().size() * MAX_BUNKER;
+        for (Enemy enemy : snapshot.enemies()) {
+            size += maxSize(enemy);
+        }
+        return size;
+    }
+
+    static int maxSize(Enemy enemy) {
+        return 2 * MAX_COORD + 3 * MAX_VARINT + 1 + enemy.getEnemyProjectile().size() * 2 * MAX_COORD;
+    }
+
+    private static int countLiving(List<? extends Renderable> renderables) {
+        int living = 0;
+        for (Renderable renderable : renderables) {
+            if (renderable.isAlive()) {
+                living++;
+            }
+        }
+        return living;
+    }
+
+    static void putHeader(ByteBuffer buffer, byte kind, int score, int timer, Player player) {
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        buffer.put(kind);
+        putVarLong(buffer, zigzag(score));
+        putVarLong(buffer, zigzag(timer));
+        putCoord(buffer, player.getPosition().getX(), 0);
+        putCoord(buffer, player.getPosition().getY(), 0);
+        putCoord(buffer, player.getHealth(), 0);
+        putCoord(buffer, player.getVelocity(), 0);
+    }
+
+    // Checks magic and version, returning the kind; score, timer and player follow
+    private static byte getHeader(ByteBuffer buffer) {
+        int magic = buffer.getInt();
+        if (magic != MAGIC) {
+            throw new IllegalArgumentException("Not a memento: bad magic " + Integer.toHexString(magic));
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported memento version " + version);
+        }
+        byte kind = buffer.get();
+        if (kind != FULL && kind != DELTA) {
+            throw new IllegalArgumentException("Unknown memento kind " + kind);
+        }
+        return kind;
+    }
+
+    private static int getSlot(ByteBuffer buffer, int slots) {
+        long slot = getVarLong(buffer);
+        if (slot >= slots) {
+            throw new IllegalArgumentException("Slot " + slot + " outside a keyframe of " + slots);
+        }
+        return (int) slot;
+    }
+
+    private static Player getPlayer(ByteBuffer buffer) {
+        double x = getCoord(buffer, 0);
+        double y = getCoord(buffer, 0);
+        double health = getCoord(buffer, 0);
+        double speed = getCoord(buffer, 0);
+        return createPlayer(x, y, health, speed);
+    }
+
+    static void putBunker(ByteBuffer buffer, Bunker bunker, double lastX, double lastY) {
+        putCoord(buffer, bunker.getPosition().getX(), lastX);
+        putCoord(buffer, bunker.getPosition().getY(), lastY);
+        putCoord(buffer, bunker.getWidth(), 0);
+        putCoord(buffer, bunker.getHeight(), 0);
+        putVarLong(buffer, zigzag(bunker.getLives()));
+        buffer.put(stateOf(bunker.getState()));
+    }
+
+    private static Bunker getBunker(ByteBuffer buffer, BunkerBuilder builder, double lastX, double lastY) {
+        double x = getCoord(buffer, lastX);
+        double y = getCoord(buffer, lastY);
+        double width = getCoord(buffer, 0);
+        double height = getCoord(buffer, 0);
+        int lives = (int) unzigzag(getVarLong(buffer));
+        byte state = buffer.get();
+        return createBunker(builder, x, y, width, height, lives, state);
+    }
+
+    static void putEnemy(ByteBuffer buffer, Enemy enemy, double lastX, double lastY) {
+        double x = enemy.getPosition().getX();
+        double y = enemy.getPosition().getY();
+        putCoord(buffer, x, lastX);
+        putCoord(buffer, y, lastY);
+        putVarLong(buffer, zigzag((long) enemy.getHealth()));
+        putVarLong(buffer, zigzag(enemy.getXVel()));
+        buffer.put(strategyOf(enemy.getProjectileStrategy()));
+        putVarLong(buffer, enemy.getEnemyProjectile().size());
+        for (Projectile projectile : enemy.getEnemyProjectile()) {
+            putCoord(buffer, projectile.getPosition().getX(), x);
+            putCoord(buffer, projectile.getPosition().getY(), y);
+        }
+    }
+
+    private static Enemy getEnemy(ByteBuffer buffer, EnemyBuilder builder, double lastX, double lastY) {
+        double x = getCoord(buffer, lastX);
+        double y = getCoord(buffer, lastY);
+        int lives = (int) unzigzag(getVarLong(buffer));
+        int xVel = (int) unzigzag(getVarLong(buffer));
+        byte strategy = buffer.get();
+
+        builder.reset();
+        builder.buildPosition(new Vector2D(x, y));
+        builder.buildLives(lives);
+        builder.buildImageAndStrategy(strategyName(strategy));
+        Enemy enemy = (Enemy) builder.createGameObject();
+        enemy.setXVel(xVel);
+
+        int projectiles = (int) getVarLong(buffer);
+        for (int p = 0; p < projectiles; p++) {
+            double projectileX = getCoord(buffer, x);
+            double projectileY = getCoord(buffer, y);
+            EnemyProjectile projectile = new EnemyProjectile(new Vector2D(projectileX, projectileY),
+                    enemy.getProjectileStrategy(), enemy.getProjectileImage());
+            projectile.setOwner(enemy);
+            enemy.getEnemyProjectile().add(projectile);
+        }
+        return enemy;
+    }
+
+    private static Player createPlayer(double x, double y, double health, double speed) {
+        GameConfig.PlayerConfig playerInfo = new GameConfig.PlayerConfig(
+                new GameConfig.Position((int) x, (int) y), (int) health, (int) speed);
+
+        Player player = new Player(playerInfo);
+        player.getPosition().setX(x);
+        player.getPosition().setY(y);
+        player.setHealth(health);
+        return player;
+    }
+
+    private static Bunker createBunker(BunkerBuilder builder, double x, double y, double width, double height, int lives, byte state) {
+        String image;
+        if (state == STATE_GREEN) {
+            image = "bunkerGreen.png";
+        } else if (state == STATE_YELLOW) {
+            image = "bunkerYellow.png";
+        } else {
+            image = "bunkerRed.png";
+        }
+
+        builder.reset();
+        builder.buildPosition(new Vector2D(x, y));
+        builder.buildLives(lives);
+        builder.buildImage(SpriteCache.get(image, width, height));
+        Bunker bunker = (Bunker) builder.createGameObject();
+        bunker.setWidth((int) width);
+        bunker.setHeight((int) height);
+
+        if (state == STATE_GREEN) {
+            builder.setState(new GreenState(bunker));
+        } else if (state == STATE_YELLOW) {
+            builder.setState(new YellowState(bunker));
+        } else {
+            builder.setState(new RedState(bunker));
+        }
+        return bunker;
+    }
+
+    private static byte stateOf(BunkerState state) {
+        if (state instanceof YellowState) {
+            return STATE_YELLOW;
+        }
+        if (state instanceof RedState) {
+            return STATE_RED;
+        }
+        return STATE_GREEN;
+    }
+
+    private static byte strategyOf(ProjectileStrategy strategy) {
+        if (strategy instanceof FastProjectileStrategy) {
+            return STRATEGY_FAST;
+        }
+        if (strategy instanceof SlowProjectileStrategy) {
+            return STRATEGY_SLOW;
+        }
+        return STRATEGY_NONE;
+    }
+
+    private static String strategyName(byte strategy) {
+        if (strategy == STRATEGY_FAST) {
+            return "fast_straight";
+        }
+        if (strategy == STRATEGY_SLOW) {
+            return "slow_straight";
+        }
+        return "none";
+    }
+
+    // Whole-number deltas become a tagged varint, anything else a tagged raw double.
+    // The primitives below are package-private for MementoCodecTest.
+    static void putCoord(ByteBuffer buffer, double value, double base) {
+        double delta = value - base;
+        if (delta == Math.rint(delta) && Math.abs(delta) < (1L << 40) && Double.compare(base + delta, value) == 0) {
+            putVarLong(buffer, zigzag((long) delta) << 1);
+        } else {
+            putVarLong(buffer, 1);
+            buffer.putDouble(value);
+        }
+    }
+
+    static double getCoord(ByteBuffer buffer, double base) {
+        long tagged = getVarLong(buffer);
+        if ((tagged & 1) == 1) {
+            return buffer.getDouble();
+        }
+        return base + unzigzag(tagged >>> 1);
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
@@ -0,0 +1,16 @@
+package invaders.memento;
+
+import invaders.entities.Player;
+import invaders.gameobject.Bunker;
+import invaders.gameobject.Enemy;
+
+import java.util.List;
+
+/**
+ * The parts of a game engine a memento keeps: either live entities about to be
+ * encoded, or new entities decoded from a memento.
+ *
+ * Only living bunkers and enemies are encoded, so the lists may hold dead ones.
+ */
+public record Snapshot(int score, int timer, Player player, List<Bunker> bunkers, List<Enemy> enemies) {
+}
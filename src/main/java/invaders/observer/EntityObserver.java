@@ -0,0 +1,19 @@
+package invaders.observer;
+
+import invaders.rendering.Renderable;
+
+/**
+ * Entity observer interface:
+ * told when renderables enter or leave the game engine
+ */
+public interface EntityObserver {
+    /**
+     * A renderable was added to the game
+     */
+    void spawned(Renderable renderable);
+
+    /**
+     * A renderable was removed from the game
+     */
+    void despawned(Renderable renderable);
+}
@@ -0,0 +1,36 @@
+package invaders.observer;
+
+/**
+ * An immutable snapshot of the values a Subject publishes to its observers.
+ *
+ * Each field has a change bit; observers subscribe with a mask of these bits and are
+ * told which of them changed since the previous snapshot.
+ */
+public record GameStats(int points, int lives, int timer) {
+    public static final int POINTS = 1;
+    public static final int LIVES = 1 << 1;
+    public static final int TIMER = 1 << 2;
+    public static final int ALL = POINTS | LIVES | TIMER;
+
+    /**
+     * The bits of the fields that differ from the given snapshot; all of them when it is null
+     */
+    public int changedFrom(GameStats previous) {
+        if (previous == null) {
+            return ALL;
+        }
+        return changedFrom(previous, points, lives, timer);
+    }
+
+    /**
+     * The bits of the given values that differ from the snapshot, without building a new one
+     */
+    public static int changedFrom(GameStats previous, int points, int lives, int timer) {
+        if (previous == null) {
+            return ALL;
+        }
+        return (points != previous.points ? POINTS : 0)
+                | (lives != previous.lives ? LIVES : 0)
+                | (timer != previous.timer ? TIMER : 0);
+    }
+}
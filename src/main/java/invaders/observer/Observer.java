@@ -6,7 +6,8 @@ package invaders.observer;
  */
 public interface Observer {
     /**
-     * Update observer
+     * Update observer with the latest stats
+     * @param changed the GameStats bits that changed since the previous update, limited to the fields subscribed to
      */
-    void update ();
+    void update(GameStats stats, int changed);
 }
@@ -21,9 +21,23 @@ public interface Subject {
     int getTimer();
 
     /**
-     * attach observer
+     * get the current stats, which may not have been published yet;
+     * the published instance is returned while nothing has changed since
      */
-    void attach(Observer observer);
+    GameStats getStats();
+
+    /**
+     * attach observer to every field
+     */
+    default void attach(Observer observer) {
+        attach(observer, GameStats.ALL);
+    }
+
+    /**
+     * attach observer to the fields in the mask of GameStats bits;
+     * it is updated with the current stats straight away
+     */
+    void attach(Observer observer, int fields);
 
     /**
      * detach observer
@@ -31,7 +45,7 @@ public interface Subject {
     void detach(Observer observer);
 
     /**
-     * notify all observers
+     * publish the stats to the observers of the fields that changed since the last publish, if any did
      */
     void notifyObservers();
 }
@@ -0,0 +1,32 @@
+package invaders.physics;
+
+import invaders.rendering.Renderable;
+
+/**
+ * A renderable whose size and health, like its position, live in an EntityStore slot
+ * while it is in a game. The object is then a thin handle: its getters and setters
+ * read and write the store's arrays, and it only holds the values itself while it is
+ * outside a game, e.g. pooled or kept in a memento.
+ */
+public interface Body extends Renderable {
+    /**
+     * Distance EntityStore.advance() moves the body each tick while it is alive; 0 if something else moves it
+     */
+    public default double getVelocityX() {
+        return 0;
+    }
+
+    /**
+     * Vertical distance EntityStore.advance() moves the body each tick while it is alive
+     */
+    public default double getVelocityY() {
+        return 0;
+    }
+
+    /**
+     * Called by the store when the body takes a slot or its slot moves, and with a null
+     * store when it leaves; the body must then copy its size and health back from the
+     * slot it had, which still holds them during the call.
+     */
+    public void bind(EntityStore store, int slot);
+}
@@ -0,0 +1,24 @@
+package invaders.physics;
+
+/**
+ * Broadphase collision interface:
+ * narrows the set of entity pairs that need an exact AABB test.
+ */
+public interface Broadphase {
+    /**
+     * Rebuild the index from the entities of the current tick
+     */
+    void update(EntityStore store);
+
+    /**
+     * Visit every candidate pair of store slots (i < j) in ascending order of i, then j
+     */
+    void findPairs(PairHandler handler);
+
+    /**
+     * Receives candidate pairs from the broadphase
+     */
+    interface PairHandler {
+        void handle(int i, int j);
+    }
+}
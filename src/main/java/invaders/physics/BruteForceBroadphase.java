@@ -0,0 +1,23 @@
+package invaders.physics;
+
+/**
+ * Reports every pair of entities as a candidate.
+ */
+public class BruteForceBroadphase implements Broadphase {
+    private EntityStore store;
+
+    @Override
+    public void update(EntityStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void findPairs(PairHandler handler) {
+        int size = store.size();
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                handler.handle(i, j);
+            }
+        }
+    }
+}
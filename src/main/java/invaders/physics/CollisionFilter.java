@@ -0,0 +1,39 @@
+package invaders.physics;
+
+/**
+ * Collision categories and the precomputed matrix of which categories interact.
+ *
+ * A pair can collide only when (categoryA & maskB) != 0. The matrix is symmetric,
+ * so the reverse test always agrees.
+ */
+public final class CollisionFilter {
+    public static final int NONE = 0;
+    public static final int PLAYER = 1;
+    public static final int PLAYER_PROJECTILE = 1 << 1;
+    public static final int ENEMY = 1 << 2;
+    public static final int ENEMY_PROJECTILE = 1 << 3;
+    public static final int BUNKER = 1 << 4;
+
+    private static final int ALL = PLAYER | PLAYER_PROJECTILE | ENEMY | ENEMY_PROJECTILE | BUNKER;
+
+    // indexed by the bit position of the category
+    private static final int[] MASKS = {
+            ALL,                                  // PLAYER
+            ALL,                                  // PLAYER_PROJECTILE
+            ALL & ~ENEMY_PROJECTILE,              // ENEMY
+            ALL & ~(ENEMY | ENEMY_PROJECTILE),    // ENEMY_PROJECTILE
+            ALL                                   // BUNKER
+    };
+
+    private CollisionFilter() {}
+
+    /**
+     * get the categories a category collides with
+     */
+    public static int maskOf(int category) {
+        if (category == NONE) {
+            return NONE;
+        }
+        return MASKS[Integer.numberOfTrailingZeros(category)];
+    }
+}
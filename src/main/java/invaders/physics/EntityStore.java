@@ -0,0 +1,485 @@
+package invaders.physics;
+
+import invaders.rendering.Renderable;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays store of the renderables of one game engine.
+ *
+ * The store owns the position of every renderable in the game, and the size and
+ * health of every Body (enemies and projectiles); those objects are thin handles
+ * that read and write its arrays through their slot. Projectiles are moved by one
+ * pass over the arrays each tick, and the broadphase, AABB and bounds passes sweep
+ * the same flat memory instead of chasing Renderable and Vector2D references. The
+ * few other renderables, the player and bunkers, keep their own health and are
+ * re-read by refresh() once per tick.
+ *
+ * Slots follow the order the renderables were added in. A removed renderable takes
+ * its state back and leaves an empty slot, and compact() closes the empty slots in
+ * one ordered pass, so collision pairs keep the order of the renderables list.
+ *
+ * When the renderables moved this tick, each slot also keeps its displacement, so
+ * a fast box that passed through another within the tick still collides with it.
+ * Each slot also keeps where it was at the start of the tick, so renderers can draw
+ * between ticks.
+ */
+public class EntityStore {
+    private int size = 0; // slots in use, including emptied ones
+    private int holes = 0;
+    private boolean moved = false; // whether the renderables were updated this tick, so their displacement applies
+
+    private Renderable[] handles = new Renderable[0];
+    private Body[] bodies = new Body[0]; // null for renderables that keep their own size and health
+    private Vector2D[] positions = new Vector2D[0];
+    private double[] x = new double[0];
+    private double[] y = new double[0];
+    private double[] previousX = new double[0];
+    private double[] previousY = new double[0];
+    private int[] version = new int[0];
+    private double[] width = new double[0];
+    private double[] height = new double[0];
+    private double[] vx = new double[0];
+    private double[] vy = new double[0];
+    private double[] dx = new double[0];
+    private double[] dy = new double[0];
+    private double[] health = new double[0];
+    private int[] category = new int[0];
+    private int[] mask = new int[0];
+    private boolean[] foreground = new boolean[0];
+
+    // slots of the renderables refresh() re-reads
+    private int[] mirrored = new int[0];
+    private int mirroredCount = 0;
+
+    /**
+     * Give a renderable entering the game the next slot; its position, and its size and
+     * health if it is a Body, are owned by the store until it is removed
+     */
+    public void add(Renderable ro) {
+        Vector2D position = ro.getPosition();
+        if (position.store != null) {
+            throw new IllegalStateException("Position of " + ro.getRenderableObjectName() + " is already in a store");
+        }
+        compact();
+        if (size == handles.length) {
+            grow(Math.max(16, size * 2));
+        }
+
+        int i = size++;
+        handles[i] = ro;
+        positions[i] = position;
+        x[i] = position.getX();
+        y[i] = position.getY();
+        previousX[i] = x[i];
+        previousY[i] = y[i];
+        version[i] = position.getVersion();
+        width[i] = ro.getWidth();
+        height[i] = ro.getHeight();
+        dx[i] = ro.getDisplacementX();
+        dy[i] = ro.getDisplacementY();
+        health[i] = ro.getHealth();
+        category[i] = ro.getCollisionCategory();
+        mask[i] = ro.getCollisionMask();
+        foreground[i] = ro.getLayer() == Renderable.Layer.FOREGROUND;
+
+        position.store = this;
+        position.slot = i;
+        if (ro instanceof Body) {
+            Body body = (Body) ro;
+            bodies[i] = body;
+            vx[i] = body.getVelocityX();
+            vy[i] = body.getVelocityY();
+            body.bind(this, i);
+        } else {
+            bodies[i] = null;
+            vx[i] = 0;
+            vy[i] = 0;
+            if (mirroredCount == mirrored.length) {
+                mirrored = Arrays.copyOf(mirrored, Math.max(4, mirroredCount * 2));
+            }
+            mirrored[mirroredCount++] = i;
+        }
+    }
+
+    /**
+     * Hand a renderable leaving the game its state back and empty its slot until compact()
+     * @return whether the renderable was in this store
+     */
+    public boolean remove(Renderable ro) {
+        Vector2D position = ro.getPosition();
+        if (position.store != this) {
+            return false;
+        }
+        int i = position.slot;
+        if (bodies[i] != null) {
+            bodies[i].bind(null, -1);
+        }
+        position.unbind();
+        handles[i] = null;
+        bodies[i] = null;
+        positions[i] = null;
+        holes++;
+        return true;
+    }
+
+    /**
+     * Close the slots emptied by remove(), moving every later slot down in order
+     */
+    public void compact() {
+        if (holes == 0) {
+            return;
+        }
+        int to = 0;
+        mirroredCount = 0;
+        for (int from = 0; from < size; from++) {
+            if (handles[from] == null) {
+                continue;
+            }
+            if (from != to) {
+                handles[to] = handles[from];
+                bodies[to] = bodies[from];
+                positions[to] = positions[from];
+                x[to] = x[from];
+                y[to] = y[from];
+                previousX[to] = previousX[from];
+                previousY[to] = previousY[from];
+                version[to] = version[from];
+                width[to] = width[from];
+                height[to] = height[from];
+                vx[to] = vx[from];
+                vy[to] = vy[from];
+                dx[to] = dx[from];
+                dy[to] = dy[from];
+                health[to] = health[from];
+                category[to] = category[from];
+                mask[to] = mask[from];
+                foreground[to] = foreground[from];
+
+                positions[to].slot = to;
+                if (bodies[to] != null) {
+                    bodies[to].bind(this, to);
+                }
+            }
+            if (bodies[to] == null) {
+                mirrored[mirroredCount++] = to;
+            }
+            to++;
+        }
+        // drop references to renderables that left
+        Arrays.fill(handles, to, size, null);
+        Arrays.fill(bodies, to, size, null);
+        Arrays.fill(positions, to, size, null);
+        size = to;
+        holes = 0;
+    }
+
+    private void grow(int capacity) {
+        handles = Arrays.copyOf(handles, capacity);
+        bodies = Arrays.copyOf(bodies, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        version = Arrays.copyOf(version, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        dx = Arrays.copyOf(dx, capacity);
+        dy = Arrays.copyOf(dy, capacity);
+        health = Arrays.copyOf(health, capacity);
+        category = Arrays.copyOf(category, capacity);
+        mask = Arrays.copyOf(mask, capacity);
+        foreground = Arrays.copyOf(foreground, capacity);
+    }
+
+    /**
+     * Keep the current positions as where this tick started, see getPreviousX
+     */
+    public void beginTick() {
+        compact();
+        System.arraycopy(x, 0, previousX, 0, size);
+        System.arraycopy(y, 0, previousY, 0, size);
+    }
+
+    /**
+     * Move every living body that has a velocity by one tick, see Body.getVelocityX
+     */
+    public void advance() {
+        compact();
+        for (int i = 0; i < size; i++) {
+            if ((vx[i] != 0 || vy[i] != 0) && health[i] > 0) {
+                x[i] += vx[i];
+                y[i] += vy[i];
+                version[i]++;
+            }
+        }
+    }
+
+    /**
+     * Re-read the size, health and displacement of the renderables that are not bodies
+     * @param moved whether the renderables were updated this tick, so their displacement applies
+     */
+    public void refresh(boolean moved) {
+        compact();
+        this.moved = moved;
+        for (int k = 0; k < mirroredCount; k++) {
+            int i = mirrored[k];
+            Renderable ro = handles[i];
+            width[i] = ro.getWidth();
+            height[i] = ro.getHeight();
+            health[i] = ro.getHealth();
+            dx[i] = ro.getDisplacementX();
+            dy[i] = ro.getDisplacementY();
+        }
+    }
+
+    /**
+     * Same test as Renderable.isColliding, on the stored boxes
+     */
+    public boolean overlaps(int i, int j) {
+        if (x[i] + width[i] < x[j] || x[j] + width[j] < x[i]) {
+            return false; // No overlap in the x-axis
+        }
+        return !(y[i] + height[i] < y[j] || y[j] + height[j] < y[i]);
+    }
+
+    /**
+     * Whether two slots touch now, or touched at some time within this tick's motion
+     */
+    public boolean collides(int i, int j) {
+        if (overlaps(i, j)) {
+            return true;
+        }
+        double dxi = getDx(i);
+        double dyi = getDy(i);
+        double dxj = getDx(j);
+        double dyj = getDy(j);
+        double relX = dxi - dxj;
+        double relY = dyi - dyj;
+        if (relX == 0 && relY == 0) {
+            return false;
+        }
+
+        // box i swept from its start of tick position against box j, in j's frame at t = 0
+        double startX = x[i] - dxi;
+        double startY = y[i] - dyi;
+        double otherX = x[j] - dxj;
+        double otherY = y[j] - dyj;
+
+        double enter = Double.NEGATIVE_INFINITY;
+        double exit = Double.POSITIVE_INFINITY;
+        if (relX == 0) {
+            if (startX + width[i] < otherX || otherX + width[j] < startX) {
+                return false;
+            }
+        } else {
+            double t0 = (otherX - width[i] - startX) / relX;
+            double t1 = (otherX + width[j] - startX) / relX;
+            enter = Math.max(enter, Math.min(t0, t1));
+            exit = Math.min(exit, Math.max(t0, t1));
+        }
+        if (relY == 0) {
+            if (startY + height[i] < otherY || otherY + height[j] < startY) {
+                return false;
+            }
+        } else {
+            double t0 = (otherY - height[i] - startY) / relY;
+            double t1 = (otherY + height[j] - startY) / relY;
+            enter = Math.max(enter, Math.min(t0, t1));
+            exit = Math.min(exit, Math.max(t0, t1));
+        }
+
+        // contact at t = 0 was already counted at the end of the previous tick
+        return enter <= exit && enter > 0 && enter <= 1;
+    }
+
+    /**
+     * Whether the categories of two slots are allowed to interact
+     */
+    public boolean canCollide(int i, int j) {
+        return (category[i] & mask[j]) != 0;
+    }
+
+    /**
+     * Apply damage through the handle; a body writes its health straight into the slot
+     */
+    public void takeDamage(int i, double amount) {
+        handles[i].takeDamage(amount);
+        if (bodies[i] == null) {
+            health[i] = handles[i].getHealth();
+        }
+    }
+
+    /**
+     * Keep foreground boxes inside width x height, leaving an offset from the border
+     */
+    public void clampForeground(int gameWidth, int gameHeight, int offset) {
+        for (int i = 0; i < size; i++) {
+            if (!foreground[i] || handles[i] == null) {
+                continue;
+            }
+            double newX = x[i];
+            double newY = y[i];
+            if (newX + width[i] >= gameWidth) {
+                newX = (gameWidth - offset) - width[i];
+            }
+            if (newX <= 0) {
+                newX = offset;
+            }
+            if (newY + height[i] >= gameHeight) {
+                newY = (gameHeight - offset) - height[i];
+            }
+            if (newY <= 0) {
+                newY = offset;
+            }
+
+            setX(i, newX);
+            setY(i, newY);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Renderable get(int i) {
+        return handles[i];
+    }
+
+    public double getX(int i) {
+        return x[i];
+    }
+
+    public double getY(int i) {
+        return y[i];
+    }
+
+    /**
+     * X of the slot at the start of the last tick, or where it entered the game during that tick
+     */
+    public double getPreviousX(int i) {
+        return previousX[i];
+    }
+
+    /**
+     * Y of the slot at the start of the last tick
+     */
+    public double getPreviousY(int i) {
+        return previousY[i];
+    }
+
+    public void setX(int i, double value) {
+        if (x[i] != value) {
+            x[i] = value;
+            version[i]++;
+        }
+    }
+
+    public void setY(int i, double value) {
+        if (y[i] != value) {
+            y[i] = value;
+            version[i]++;
+        }
+    }
+
+    /**
+     * Move a slot by a step taken outside advance(), e.g. by Formation, kept as its displacement
+     */
+    public void step(int i, double stepX, double stepY) {
+        setX(i, x[i] + stepX);
+        setY(i, y[i] + stepY);
+        dx[i] = stepX;
+        dy[i] = stepY;
+    }
+
+    /**
+     * Changes whenever the position of the slot changes, see Vector2D.getVersion
+     */
+    public int getVersion(int i) {
+        return version[i];
+    }
+
+    public double getWidth(int i) {
+        return width[i];
+    }
+
+    public double getHeight(int i) {
+        return height[i];
+    }
+
+    public void setSize(int i, double width, double height) {
+        this.width[i] = width;
+        this.height[i] = height;
+    }
+
+    /**
+     * Left edge of the box swept over this tick
+     */
+    public double getSweptMinX(int i) {
+        return Math.min(x[i], x[i] - getDx(i));
+    }
+
+    /**
+     * Right edge of the box swept over this tick
+     */
+    public double getSweptMaxX(int i) {
+        return Math.max(x[i], x[i] - getDx(i)) + width[i];
+    }
+
+    /**
+     * Top edge of the box swept over this tick
+     */
+    public double getSweptMinY(int i) {
+        return Math.min(y[i], y[i] - getDy(i));
+    }
+
+    /**
+     * Bottom edge of the box swept over this tick
+     */
+    public double getSweptMaxY(int i) {
+        return Math.max(y[i], y[i] - getDy(i)) + height[i];
+    }
+
+    /**
+     * Horizontal displacement of this tick, 0 when the renderables did not move
+     */
+    public double getDx(int i) {
+        return moved ? dx[i] : 0;
+    }
+
+    /**
+     * Vertical displacement of this tick, 0 when the renderables did not move
+     */
+    public double getDy(int i) {
+        return moved ? dy[i] : 0;
+    }
+
+    /**
+     * Horizontal displacement last stored for the slot, whether or not the renderables moved this tick
+     */
+    public double getStepX(int i) {
+        return dx[i];
+    }
+
+    /**
+     * Vertical displacement last stored for the slot
+     */
+    public double getStepY(int i) {
+        return dy[i];
+    }
+
+    public double getHealth(int i) {
+        return health[i];
+    }
+
+    public void setHealth(int i, double value) {
+        health[i] = value;
+    }
+
+    public int getCategory(int i) {
+        return category[i];
+    }
+}
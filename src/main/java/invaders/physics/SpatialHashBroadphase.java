@@ -0,0 +1,121 @@
+package invaders.physics;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid broadphase over the game area.
+ *
+ * Every entity is bucketed into the cells its box swept over this tick touches; only entities
+ * sharing a cell are reported as candidates. Pairs come out in the same order as
+ * the brute force double loop so collision results do not depend on the broadphase.
+ */
+public class SpatialHashBroadphase implements Broadphase {
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+
+    // cell -> [cellStart[cell], cellStart[cell + 1]) range of cellEntries
+    private final int[] cellStart;
+    private int[] cellEntries = new int[0];
+
+    // per entity cell bounds, inclusive
+    private int[] minCol = new int[0];
+    private int[] maxCol = new int[0];
+    private int[] minRow = new int[0];
+    private int[] maxRow = new int[0];
+
+    private int[] seen = new int[0];
+    private int[] candidates = new int[0];
+    private int size = 0;
+
+    public SpatialHashBroadphase(int gameWidth, int gameHeight, double cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(gameWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(gameHeight / cellSize));
+        this.cellStart = new int[columns * rows + 1];
+    }
+
+    @Override
+    public void update(EntityStore store) {
+        size = store.size();
+        if (minCol.length < size) {
+            int capacity = Math.max(size, minCol.length * 2);
+            minCol = new int[capacity];
+            maxCol = new int[capacity];
+            minRow = new int[capacity];
+            maxRow = new int[capacity];
+            seen = new int[capacity];
+            candidates = new int[capacity];
+        }
+
+        // count entries per cell
+        Arrays.fill(cellStart, 0);
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            minCol[i] = column(store.getSweptMinX(i));
+            maxCol[i] = column(store.getSweptMaxX(i));
+            minRow[i] = row(store.getSweptMinY(i));
+            maxRow[i] = row(store.getSweptMaxY(i));
+            for (int r = minRow[i]; r <= maxRow[i]; r++) {
+                for (int c = minCol[i]; c <= maxCol[i]; c++) {
+                    cellStart[r * columns + c + 1]++;
+                }
+            }
+            total += (maxRow[i] - minRow[i] + 1) * (maxCol[i] - minCol[i] + 1);
+        }
+        for (int cell = 0; cell < columns * rows; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+
+        // fill cells, indices within a cell end up ascending
+        if (cellEntries.length < total) {
+            cellEntries = new int[Math.max(total, cellEntries.length * 2)];
+        }
+        int[] cursor = Arrays.copyOf(cellStart, cellStart.length - 1);
+        for (int i = 0; i < size; i++) {
+            for (int r = minRow[i]; r <= maxRow[i]; r++) {
+                for (int c = minCol[i]; c <= maxCol[i]; c++) {
+                    cellEntries[cursor[r * columns + c]++] = i;
+                }
+            }
+        }
+        Arrays.fill(seen, 0, size, -1);
+    }
+
+    @Override
+    public void findPairs(PairHandler handler) {
+        for (int i = 0; i < size; i++) {
+            int count = 0;
+            for (int r = minRow[i]; r <= maxRow[i]; r++) {
+                for (int c = minCol[i]; c <= maxCol[i]; c++) {
+                    int cell = r * columns + c;
+                    for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                        int j = cellEntries[k];
+                        if (j > i && seen[j] != i) {
+                            seen[j] = i;
+                            candidates[count++] = j;
+                        }
+                    }
+                }
+            }
+
+            Arrays.sort(candidates, 0, count);
+            for (int k = 0; k < count; k++) {
+                handler.handle(i, candidates[k]);
+            }
+        }
+    }
+
+    private int column(double x) {
+        return clamp((int) Math.floor(x / cellSize), columns);
+    }
+
+    private int row(double y) {
+        return clamp((int) Math.floor(y / cellSize), rows);
+    }
+
+    // off-screen boxes fold onto the border cells, which keeps overlapping boxes in a shared cell
+    private static int clamp(int value, int limit) {
+        return Math.max(0, Math.min(limit - 1, value));
+    }
+}
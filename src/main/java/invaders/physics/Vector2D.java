@@ -1,12 +1,20 @@
 package invaders.physics;
 
 /**
- * A utility class for storing position information
+ * A utility class for storing position information.
+ *
+ * While its entity is in a game the position is bound to a slot of the engine's
+ * EntityStore, which then owns x and y; this object is only a handle to them.
  */
 public class Vector2D {
 
 	private double x;
 	private double y;
+	private int version = 0;
+
+	// set by EntityStore while it owns the coordinates
+	EntityStore store = null;
+	int slot = -1;
 
 	public Vector2D(double x, double y){
 		this.x = x;
@@ -14,18 +22,68 @@ public class Vector2D {
 	}
 
 	public double getX(){
-		return this.x;
+		return store == null ? this.x : store.getX(slot);
 	}
 
 	public double getY(){
-		return this.y;
+		return store == null ? this.y : store.getY(slot);
 	}
 
 	public void setX(double x){
-		this.x = x;
+		if (store != null) {
+			store.setX(slot, x);
+		} else if (this.x != x) {
+			this.x = x;
+			version++;
+		}
 	}
 
 	public void setY(double y){
-		this.y = y;
+		if (store != null) {
+			store.setY(slot, y);
+		} else if (this.y != y) {
+			this.y = y;
+			version++;
+		}
+	}
+
+	/**
+	 * X between where it was at the start of the last tick (alpha 0) and now (alpha 1), for rendering between ticks
+	 */
+	public double interpolateX(double alpha){
+		if (store == null) {
+			return this.x;
+		}
+		double from = store.getPreviousX(slot);
+		return from + (store.getX(slot) - from) * alpha;
+	}
+
+	/**
+	 * Y between where it was at the start of the last tick (alpha 0) and now (alpha 1)
+	 */
+	public double interpolateY(double alpha){
+		if (store == null) {
+			return this.y;
+		}
+		double from = store.getPreviousY(slot);
+		return from + (store.getY(slot) - from) * alpha;
+	}
+
+	/**
+	 * Changes whenever x or y changes, so a reader can tell a moved position without keeping its values
+	 */
+	public int getVersion(){
+		return store == null ? this.version : store.getVersion(slot);
+	}
+
+	/**
+	 * Take the coordinates back from the store that owned them
+	 */
+	void unbind(){
+		this.x = store.getX(slot);
+		this.y = store.getY(slot);
+		this.version = store.getVersion(slot);
+		this.store = null;
+		this.slot = -1;
 	}
 }
@@ -0,0 +1,30 @@
+package invaders.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A level config read from disk, taken from the cache, or streamed into an engine
+ */
+@Name("invaders.ConfigLoad")
+@Label("Config Load")
+@Category({"Invaders", "Config"})
+public final class ConfigLoadEvent extends Event {
+    public static final String PARSED = "parsed";
+    public static final String CACHED = "cached";
+    public static final String STREAMED = "streamed";
+
+    @Label("Path")
+    public String path;
+
+    @Label("Source")
+    public String source;
+
+    @Label("Enemies")
+    public int enemies;
+
+    @Label("Bunkers")
+    public int bunkers;
+}
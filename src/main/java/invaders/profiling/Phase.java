@@ -0,0 +1,30 @@
+package invaders.profiling;
+
+/**
+ * The timed phases of a tick (GameEngine.update) and of a frame (GameWindow.draw)
+ */
+public enum Phase {
+    TICK("tick"),
+    INPUT("input"),
+    PLAYER_MOVE("player move"),
+    OBJECT_UPDATE("object update"),
+    COLLISIONS("collisions"),
+    // includes the HUD, which is refreshed by its observer
+    NOTIFY("observer notify"),
+    CLAMP("bounds clamp"),
+    PENDING("pending changes"),
+    FRAME("frame"),
+    VIEW_SYNC("view sync"),
+    RECONCILE("reconcile"),
+    HUD("hud");
+
+    private final String label;
+
+    Phase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,59 @@
+package invaders.profiling;
+
+import javafx.scene.control.Label;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * An on-screen table of p50, p99 and max per phase, in microseconds.
+ *
+ * The text is rebuilt in one reused buffer when refresh() is called, which the window
+ * does a few times a second rather than every frame.
+ */
+public class ProfilerOverlay {
+    private static final Phase[] PHASES = Phase.values();
+
+    private final PhaseProfiler profiler;
+    private final Label label = new Label();
+    private final StringBuilder text = new StringBuilder(1024);
+
+    public ProfilerOverlay(PhaseProfiler profiler, double x, double y) {
+        this.profiler = profiler;
+        label.setFont(Font.font("Monospaced", 11));
+        label.setTextFill(Color.LIGHTGREEN);
+        label.setLayoutX(x);
+        label.setLayoutY(y);
+        label.setViewOrder(-1);
+        refresh();
+    }
+
+    public Label getNode() {
+        return label;
+    }
+
+    public void refresh() {
+        text.setLength(0);
+        text.append("phase                p50     p99     max  (us)");
+        for (Phase phase : PHASES) {
+            LatencyHistogram histogram = profiler.get(phase);
+            text.append('\n').append(phase.getLabel());
+            for (int i = phase.getLabel().length(); i < 16; i++) {
+                text.append(' ');
+            }
+            appendMicros(histogram.getPercentile(50));
+            appendMicros(histogram.getPercentile(99));
+            appendMicros(histogram.getMax());
+        }
+        label.setText(text.toString());
+    }
+
+    // right-aligned in 8 columns with one decimal
+    private void appendMicros(long nanos) {
+        long tenths = nanos / 100;
+        int start = text.length();
+        text.append(tenths / 10).append('.').append(tenths % 10);
+        for (int width = text.length() - start; width < 8; width++) {
+            text.insert(start, ' ');
+        }
+    }
+}
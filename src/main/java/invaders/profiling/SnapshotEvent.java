@@ -0,0 +1,31 @@
+package invaders.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A memento saved from or restored into a game engine
+ */
+@Name("invaders.Snapshot")
+@Label("Snapshot")
+@Category({"Invaders", "Memento"})
+public final class SnapshotEvent extends Event {
+    public static final String SAVE = "save";
+    public static final String RESTORE = "restore";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Enemies")
+    public int enemies;
+
+    @Label("Bunkers")
+    public int bunkers;
+}
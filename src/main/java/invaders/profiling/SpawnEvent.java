@@ -0,0 +1,36 @@
+package invaders.profiling;
+
+import invaders.rendering.Renderable;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A renderable entering the game
+ */
+@Name("invaders.Spawn")
+@Label("Spawn")
+@Category({"Invaders", "Entities"})
+@StackTrace(false)
+public final class SpawnEvent extends Event {
+    @Label("Entity")
+    public String entity;
+
+    @Label("X")
+    public double x;
+
+    @Label("Y")
+    public double y;
+
+    public static void emit(Renderable renderable) {
+        SpawnEvent event = new SpawnEvent();
+        if (event.isEnabled()) {
+            event.entity = renderable.getRenderableObjectName();
+            event.x = renderable.getPosition().getX();
+            event.y = renderable.getPosition().getY();
+            event.commit();
+        }
+    }
+}
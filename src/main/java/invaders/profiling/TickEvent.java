@@ -0,0 +1,42 @@
+package invaders.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One GameEngine.update(), with the entity and collision counts of the tick
+ */
+@Name("invaders.Tick")
+@Label("Tick")
+@Category({"Invaders", "Engine"})
+@Description("One simulation tick of a game engine")
+@StackTrace(false)
+public final class TickEvent extends Event {
+    @Label("Tick")
+    @Description("Number of the tick in its engine, counting from 1")
+    public long tick;
+
+    @Label("Renderables")
+    public int renderables;
+
+    @Label("Game Objects")
+    public int gameObjects;
+
+    @Label("Collision Pairs")
+    @Description("Candidate pairs reported by the broadphase")
+    public int collisionPairs;
+
+    @Label("Collisions")
+    @Description("Pairs that hit and took damage")
+    public int collisions;
+
+    @Label("Spawned")
+    public int spawned;
+
+    @Label("Despawned")
+    public int despawned;
+}
@@ -0,0 +1,71 @@
+package invaders.rendering;
+
+import invaders.physics.Vector2D;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+
+import java.util.List;
+
+/**
+ * Draws all renderables onto one Canvas, background layer first.
+ *
+ * The scene graph then holds a single node however many entities there are, so a
+ * frame costs one draw call per sprite instead of a layout and CSS pass over
+ * thousands of ImageViews.
+ */
+public class CanvasRenderer {
+    private static final Renderable.Layer[] LAYERS = Renderable.Layer.values();
+
+    private final Canvas canvas;
+    private final GraphicsContext graphics;
+
+    public CanvasRenderer(double width, double height) {
+        this.canvas = new Canvas(width, height);
+        this.graphics = canvas.getGraphicsContext2D();
+        // between the background and the HUD, like foreground ImageViews
+        canvas.setViewOrder(50.0);
+    }
+
+    /**
+     * Redraw the frame from the living renderables, each alpha of the way from where it
+     * was at the start of the last tick to where it is now
+     */
+    public void draw(List<Renderable> renderables, double xViewportOffset, double yViewportOffset, double alpha) {
+        graphics.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        for (Renderable.Layer layer : LAYERS) {
+            for (int i = 0; i < renderables.size(); i++) {
+                Renderable entity = renderables.get(i);
+                if (entity.getLayer() != layer || !entity.isAlive()) {
+                    continue;
+                }
+                Image image = entity.getImage();
+                if (image == null) {
+                    continue;
+                }
+                Vector2D position = entity.getPosition();
+                drawFitted(image, position.interpolateX(alpha) - xViewportOffset,
+                        position.interpolateY(alpha) - yViewportOffset, entity.getWidth(), entity.getHeight());
+            }
+        }
+    }
+
+    /**
+     * Draw an image scaled to fit width x height keeping its ratio, as an ImageView with preserveRatio does
+     */
+    private void drawFitted(Image image, double x, double y, double fitWidth, double fitHeight) {
+        double width = image.getWidth();
+        double height = image.getHeight();
+        if (fitWidth > 0 && fitHeight > 0 && width > 0 && height > 0) {
+            double scale = Math.min(fitWidth / width, fitHeight / height);
+            width *= scale;
+            height *= scale;
+        }
+        graphics.drawImage(image, x, y, width, height);
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+}
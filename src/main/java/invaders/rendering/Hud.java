@@ -0,0 +1,86 @@
+package invaders.rendering;
+
+import invaders.singleton.Level;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * The lives, score, time and level labels shown over the game.
+ *
+ * The labels are created once and their text is only replaced when the value it
+ * shows changes, so a frame where nothing changed touches no node at all. Text is
+ * built in one reused buffer rather than through concatenation or String.format.
+ */
+public class Hud {
+    private static final double FONT_SIZE = 20;
+    private static final int FRAMES_PER_SECOND = 120;
+
+    private final Font font = Font.font("Georgia", FONT_SIZE);
+    private final StringBuilder text = new StringBuilder(16);
+    private final Label livesLabel = label(20, 20, Color.WHITE);
+    private final Label scoreLabel = label(20, 50, Color.WHITE);
+    private final Label timeLabel = label(20, 80, Color.WHITE);
+    private final Label levelLabel = label(450, 20, Color.WHITE);
+
+    private int shownLives = -1;
+    private int shownPoints = -1;
+    private int shownSeconds = -1;
+    private Level shownLevel = null;
+
+    public Hud(Pane pane) {
+        pane.getChildren().addAll(livesLabel, scoreLabel, timeLabel, levelLabel);
+    }
+
+    /**
+     * Show the given stats, only replacing the text of the labels whose value changed
+     */
+    public void update(int points, int lives, int frameCount) {
+        if (lives != shownLives) {
+            shownLives = lives;
+            text.setLength(0);
+            text.append("LIVES: ").append(lives);
+            livesLabel.setText(text.toString());
+        }
+        if (points != shownPoints) {
+            shownPoints = points;
+            text.setLength(0);
+            text.append("SCORE: ").append(points);
+            scoreLabel.setText(text.toString());
+        }
+        // the label only shows whole seconds, so most ticks change nothing
+        int seconds = frameCount / FRAMES_PER_SECOND;
+        if (seconds != shownSeconds) {
+            shownSeconds = seconds;
+            text.setLength(0);
+            text.append("TIME: ").append(seconds / 60).append(':');
+            if (seconds % 60 < 10) {
+                text.append('0');
+            }
+            text.append(seconds % 60);
+            timeLabel.setText(text.toString());
+        }
+    }
+
+    /**
+     * Show the current level in its colour
+     */
+    public void setLevel(Level level) {
+        if (level == shownLevel) {
+            return;
+        }
+        shownLevel = level;
+        levelLabel.setText("LEVEL: " + level.getLevel());
+        levelLabel.setTextFill(level.getColor());
+    }
+
+    private Label label(double x, double y, Color color) {
+        Label label = new Label();
+        label.setFont(font);
+        label.setTextFill(color);
+        label.setLayoutX(x);
+        label.setLayoutY(y);
+        return label;
+    }
+}
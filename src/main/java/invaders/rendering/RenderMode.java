@@ -0,0 +1,16 @@
+package invaders.rendering;
+
+/**
+ * How GameWindow puts entities on screen
+ */
+public enum RenderMode {
+    /**
+     * One ImageView node per entity in the scene graph
+     */
+    NODES,
+
+    /**
+     * Every entity drawn onto a single canvas each frame
+     */
+    CANVAS
+}
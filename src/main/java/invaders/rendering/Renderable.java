@@ -1,6 +1,7 @@
 package invaders.rendering;
 
 import invaders.physics.Collider;
+import invaders.physics.CollisionFilter;
 import invaders.physics.Vector2D;
 import javafx.scene.image.Image;
 
@@ -18,6 +19,13 @@ public interface Renderable {
 
     public Renderable.Layer getLayer();
 
+    /**
+     * Changes whenever the image, width or height changes; renderables that never change keep 0
+     */
+    public default int getAppearanceVersion() {
+        return 0;
+    }
+
     public boolean isAlive();
     public void takeDamage(double amount);
 
@@ -53,4 +61,30 @@ public interface Renderable {
     }
 
     public String getRenderableObjectName();
+
+    /**
+     * Horizontal distance moved in the last tick, used for swept collision
+     */
+    public default double getDisplacementX() {
+        return 0;
+    }
+
+    /**
+     * Vertical distance moved in the last tick, used for swept collision
+     */
+    public default double getDisplacementY() {
+        return 0;
+    }
+
+    /**
+     * The collision category bit, see CollisionFilter
+     */
+    public int getCollisionCategory();
+
+    /**
+     * The categories this renderable collides with
+     */
+    public default int getCollisionMask() {
+        return CollisionFilter.maskOf(getCollisionCategory());
+    }
 }
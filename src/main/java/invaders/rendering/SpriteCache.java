@@ -0,0 +1,65 @@
+package invaders.rendering;
+
+import javafx.scene.image.Image;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared, decoded sprite images keyed by resource and requested size.
+ *
+ * Images are immutable, so every entity, builder and state can share one instance;
+ * a resource is read from disk and decoded at most once per size.
+ */
+public final class SpriteCache {
+    private static final String RESOURCE_DIR = "src/main/resources/";
+    private static final Map<Key, Image> images = new ConcurrentHashMap<>();
+    private static final Map<String, String> urls = new ConcurrentHashMap<>();
+
+    private SpriteCache() {}
+
+    /**
+     * Decode every fixed-size sprite up front so spawning never touches the disk
+     */
+    public static void preload() {
+        get("player.png", 20, 20);
+        get("player_shot.png", 10, 10);
+        get("fast_alien.png", 20, 20);
+        get("slow_alien.png", 20, 20);
+        get("alien_shot_fast.png", 10, 10);
+        get("alien_shot_slow.png", 10, 10);
+        get("bunkerYellow.png");
+        get("bunkerRed.png");
+    }
+
+    /**
+     * get a resource image at its natural size
+     */
+    public static Image get(String resource) {
+        return getByUrl(urlOf(resource), 0, 0);
+    }
+
+    /**
+     * get a resource image scaled to fit width x height, keeping its ratio
+     */
+    public static Image get(String resource, double width, double height) {
+        return getByUrl(urlOf(resource), width, height);
+    }
+
+    /**
+     * get an image by url, e.g. from Image.getUrl(); a width and height of 0 keep the natural size
+     */
+    public static Image getByUrl(String url, double width, double height) {
+        return images.computeIfAbsent(new Key(url, width, height), k -> width == 0 && height == 0
+                ? new Image(url)
+                : new Image(url, width, height, true, true));
+    }
+
+    // resolving a file url is far slower than the lookup itself, so do it once per resource
+    private static String urlOf(String resource) {
+        return urls.computeIfAbsent(resource, r -> new File(RESOURCE_DIR + r).toURI().toString());
+    }
+
+    private record Key(String url, double width, double height) {}
+}
@@ -6,20 +6,22 @@ import javafx.scene.paint.Color;
  * Level enum that stores the game level
  */
 public enum Level {
-    EASY("Easy", Color.GREEN),
-    MEDIUM("Medium", Color.YELLOW),
-    HARD("Hard", Color.RED);
+    EASY("Easy", Color.GREEN, 0.49),
+    MEDIUM("Medium", Color.YELLOW, 0.49),
+    HARD("Hard", Color.RED, 0.49);
 
     private String level;
     private Color color;
+    private double shotsPerSecond;
 
     /**
      * Level enum constructor:
      * instantiate enum
      */
-    Level(String level, Color color) {
+    Level(String level, Color color, double shotsPerSecond) {
         this.level = level;
         this.color = color;
+        this.shotsPerSecond = shotsPerSecond;
     }
 
     /**
@@ -35,4 +37,11 @@ public enum Level {
     public Color getColor() {
         return color;
     }
+
+    /**
+     * get average shots per second of each enemy
+     */
+    public double getShotsPerSecond() {
+        return shotsPerSecond;
+    }
 }
@@ -2,8 +2,7 @@ package invaders.state;
 
 import  invaders.gameobject.Bunker;
 import invaders.prototype.Prototype;
-import javafx.scene.image.Image;
-import java.io.File;
+import invaders.rendering.SpriteCache;
 
 public class GreenState implements BunkerState {
     private Bunker bunker;
@@ -13,7 +12,7 @@ public class GreenState implements BunkerState {
 
     @Override
     public void takeDamage() {
-        bunker.setImage(new Image(new File("src/main/resources/bunkerYellow.png").toURI().toString()));
+        bunker.setImage(SpriteCache.get("bunkerYellow.png"));
         bunker.setState(new YellowState(bunker));
     }
 }
@@ -1,7 +1,6 @@
 package invaders.state;
 import invaders.gameobject.Bunker;
-import javafx.scene.image.Image;
-import java.io.File;
+import invaders.rendering.SpriteCache;
 
 public class YellowState implements BunkerState {
     private Bunker bunker;
@@ -11,7 +10,7 @@ public class YellowState implements BunkerState {
 
     @Override
     public void takeDamage() {
-        bunker.setImage(new Image(new File("src/main/resources/bunkerRed.png").toURI().toString()));
+        bunker.setImage(SpriteCache.get("bunkerRed.png"));
         bunker.setState(new RedState(bunker));
     }
 }
\ No newline at end of file
@@ -1,11 +1,8 @@
 package invaders.strategy;
 
-import invaders.factory.Projectile;
-
 public class NormalProjectileStrategy implements ProjectileStrategy{
     @Override
-    public void update(Projectile p) {
-        double newYPos = p.getPosition().getY() - 2;
-        p.getPosition().setY(newYPos);
+    public double getDy() {
+        return -2;
     }
 }
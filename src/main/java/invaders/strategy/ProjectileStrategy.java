@@ -4,5 +4,25 @@ import invaders.factory.Projectile;
 import invaders.physics.Vector2D;
 
 public interface ProjectileStrategy {
-   public void update(Projectile p);
+
+   /**
+    * Horizontal displacement per tick
+    */
+   public default double getDx() {
+      return 0;
+   }
+
+   /**
+    * Vertical displacement per tick, positive is down
+    */
+   public double getDy();
+
+   /**
+    * Move the projectile by one tick's displacement
+    */
+   public default void update(Projectile p) {
+      Vector2D position = p.getPosition();
+      position.setX(position.getX() + getDx());
+      position.setY(position.getY() + getDy());
+   }
 }
@@ -0,0 +1,91 @@
+package invaders.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free ring of fixed-width long records for one producer and one consumer.
+ *
+ * Records are copied into one flat long array, so offering never allocates. The producer
+ * publishes a record by advancing the tail with a release store and the consumer frees
+ * slots the same way through the head; neither side ever waits. When the ring is full
+ * the record is dropped and counted instead of blocking the producer.
+ */
+public final class MetricsRing {
+    private final long[] slots;
+    private final int width;
+    private final int capacity;
+    private final int mask;
+
+    private final AtomicLong head = new AtomicLong(); // next record to read, advanced by the consumer
+    private final AtomicLong tail = new AtomicLong(); // next record to write, advanced by the producer
+    private final AtomicLong dropped = new AtomicLong();
+    private long cachedHead = 0; // the producer's last view of head, so a ring with room costs no volatile read
+
+    /**
+     * @param capacity records held, rounded up to a power of two
+     * @param width longs per record
+     */
+    public MetricsRing(int capacity, int width) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        if (width < 1) {
+            throw new IllegalArgumentException("Width must be at least 1: " + width);
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.width = width;
+        this.slots = new long[this.capacity * width];
+    }
+
+    /**
+     * Copy a record into the ring; producer thread only
+     * @return false if the ring was full and the record was dropped
+     */
+    public boolean offer(long[] record) {
+        long t = tail.get();
+        if (t - cachedHead == capacity) {
+            cachedHead = head.get();
+            if (t - cachedHead == capacity) {
+                dropped.lazySet(dropped.get() + 1);
+                return false;
+            }
+        }
+        System.arraycopy(record, 0, slots, (int) (t & mask) * width, width);
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Copy up to maxRecords records into the array, oldest first; consumer thread only
+     * @return number of records copied
+     */
+    public int drain(long[] into, int maxRecords) {
+        long h = head.get();
+        int count = (int) Math.min(tail.get() - h, Math.min(maxRecords, into.length / width));
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(slots, (int) ((h + i) & mask) * width, into, i * width, width);
+        }
+        head.lazySet(h + count);
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    /**
+     * Records dropped because the ring was full
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+}
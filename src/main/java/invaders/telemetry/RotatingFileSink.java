@@ -0,0 +1,189 @@
+package invaders.telemetry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends long records to numbered files in a directory, starting a new file once one is full.
+ *
+ * Files are named prefix-000001.ext and numbering continues after the files already
+ * there, so earlier runs are never overwritten. Records are encoded straight into one
+ * direct buffer, digits included, so writing allocates nothing. A binary file starts
+ * with the magic, a version byte and the field count, followed by the records.
+ */
+public final class RotatingFileSink implements Closeable {
+    static final int MAGIC = 0x5349544C; // "SITL"
+    static final byte VERSION = 1;
+    public static final long DEFAULT_MAX_FILE_BYTES = 64L * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final String prefix;
+    private final TelemetryFormat format;
+    private final long maxFileBytes;
+    private final int fields;
+    private final byte[][] names; // {"name": and ,"name": per field, for NDJSON
+    private final int maxRecordBytes;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final byte[] digits = new byte[20];
+    private FileChannel channel;
+    private int fileIndex;
+    private long fileBytes = 0;
+
+    public RotatingFileSink(Path directory, String prefix, TelemetryFormat format, String[] fieldNames) throws IOException {
+        this(directory, prefix, format, fieldNames, DEFAULT_MAX_FILE_BYTES);
+    }
+
+    public RotatingFileSink(Path directory, String prefix, TelemetryFormat format, String[] fieldNames,
+                            long maxFileBytes) throws IOException {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.format = format;
+        this.fields = fieldNames.length;
+
+        int recordBytes;
+        if (format == TelemetryFormat.NDJSON) {
+            names = new byte[fields][];
+            recordBytes = 2; // closing brace and newline
+            for (int i = 0; i < fields; i++) {
+                names[i] = ((i == 0 ? "{\"" : ",\"") + fieldNames[i] + "\":").getBytes(StandardCharsets.US_ASCII);
+                recordBytes += names[i].length + digits.length;
+            }
+        } else {
+            names = null;
+            recordBytes = fields * Long.BYTES;
+        }
+        if (recordBytes > BUFFER_SIZE || recordBytes + headerBytes() > maxFileBytes) {
+            throw new IllegalArgumentException("A record does not fit in " + maxFileBytes + " bytes");
+        }
+        this.maxRecordBytes = recordBytes;
+        this.maxFileBytes = maxFileBytes;
+
+        Files.createDirectories(directory);
+        fileIndex = lastIndex();
+        openNext();
+    }
+
+    /**
+     * Append count records laid out one after another in the array
+     */
+    public void write(long[] records, int count) throws IOException {
+        for (int r = 0; r < count; r++) {
+            if (fileBytes + maxRecordBytes > maxFileBytes) {
+                openNext();
+            }
+            if (buffer.remaining() < maxRecordBytes) {
+                flushBuffer();
+            }
+            int start = buffer.position();
+            int offset = r * fields;
+            if (format == TelemetryFormat.NDJSON) {
+                for (int i = 0; i < fields; i++) {
+                    buffer.put(names[i]);
+                    putDigits(records[offset + i]);
+                }
+                buffer.put((byte) '}').put((byte) '\n');
+            } else {
+                for (int i = 0; i < fields; i++) {
+                    buffer.putLong(records[offset + i]);
+                }
+            }
+            fileBytes += buffer.position() - start;
+        }
+    }
+
+    /**
+     * Hand the buffered records to the file system
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+    }
+
+    /**
+     * The file currently written to
+     */
+    public Path getCurrentFile() {
+        return fileName(fileIndex);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void openNext() throws IOException {
+        if (channel != null) {
+            close();
+        }
+        fileIndex++;
+        channel = FileChannel.open(fileName(fileIndex), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        fileBytes = 0;
+        if (format == TelemetryFormat.BINARY) {
+            buffer.putInt(MAGIC).put(VERSION).put((byte) fields);
+            fileBytes = headerBytes();
+        }
+    }
+
+    private int headerBytes() {
+        return format == TelemetryFormat.BINARY ? Integer.BYTES + 2 : 0;
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void putDigits(long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.put("-9223372036854775808".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int i = digits.length;
+        do {
+            digits[--i] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        buffer.put(digits, i, digits.length - i);
+    }
+
+    private Path fileName(int index) {
+        return directory.resolve(String.format("%s-%06d.%s", prefix, index, format.getExtension()));
+    }
+
+    // the highest index already used in the directory, so a new run continues after it
+    private int lastIndex() throws IOException {
+        int last = 0;
+        String start = prefix + "-";
+        String end = "." + format.getExtension();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, start + "*" + end)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String number = name.substring(start.length(), name.length() - end.length());
+                if (!number.isEmpty() && number.chars().allMatch(Character::isDigit) && number.length() < 10) {
+                    last = Math.max(last, Integer.parseInt(number));
+                }
+            }
+        }
+        return last;
+    }
+}
@@ -0,0 +1,25 @@
+package invaders.telemetry;
+
+/**
+ * How RotatingFileSink encodes records
+ */
+public enum TelemetryFormat {
+    /**
+     * One JSON object per line, keyed by field name
+     */
+    NDJSON("ndjson"),
+    /**
+     * A header per file, then fixed-width records of big-endian longs
+     */
+    BINARY("bin");
+
+    private final String extension;
+
+    TelemetryFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,141 @@
+package invaders.telemetry;
+
+import invaders.engine.GameEngine;
+import invaders.observer.GameStats;
+import invaders.observer.Observer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Streams the stats of a game engine to a RotatingFileSink without the game thread touching I/O.
+ *
+ * Every update is copied into a MetricsRing, together with the entity and collision
+ * counts of the tick, and a daemon thread drains the ring in batches to the sink. If
+ * the writer falls behind and the ring fills, records are dropped and counted rather
+ * than stalling the game. The engine only publishes ticks that changed the stats, so a
+ * game whose player is dead produces no records.
+ */
+public class TelemetryObserver implements Observer, Closeable {
+    /**
+     * The fields of a record, in order
+     */
+    public static final String[] FIELDS = {
+            "time", "timer", "points", "lives", "renderables", "gameObjects", "collisionPairs", "collisions"
+    };
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final int DRAIN_BATCH = 512;
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    // records reach the file at least this often, in batches rather than one write per tick
+    private static final long FLUSH_INTERVAL_NANOS = 100_000_000;
+
+    private final Supplier<GameEngine> engine;
+    private final MetricsRing ring;
+    private final RotatingFileSink sink;
+    private final long[] record = new long[FIELDS.length]; // producer only
+    private final Thread drainer;
+
+    private volatile boolean running = true;
+    private volatile long written = 0;
+    private volatile IOException failure = null;
+
+    /**
+     * @param engine the engine being observed, read for the entity and collision counts; a supplier so it can follow a level change
+     */
+    public TelemetryObserver(Supplier<GameEngine> engine, RotatingFileSink sink) {
+        this(engine, sink, DEFAULT_CAPACITY);
+    }
+
+    public TelemetryObserver(Supplier<GameEngine> engine, RotatingFileSink sink, int capacity) {
+        this.engine = engine;
+        this.sink = sink;
+        this.ring = new MetricsRing(capacity, FIELDS.length);
+        this.drainer = new Thread(this::drain, "telemetry-writer");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    @Override
+    public void update(GameStats stats, int changed) {
+        GameEngine model = engine.get();
+        record[0] = System.currentTimeMillis();
+        record[1] = stats.timer();
+        record[2] = stats.points();
+        record[3] = stats.lives();
+        record[4] = model.getRenderables().size();
+        record[5] = model.getGameObjects().size();
+        record[6] = model.getCollisionPairs();
+        record[7] = model.getCollisions();
+        ring.offer(record);
+    }
+
+    /**
+     * Records dropped because the writer fell behind or failed
+     */
+    public long getDropped() {
+        return ring.getDropped();
+    }
+
+    /**
+     * Records handed to the sink
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * The error that stopped the writer, if any
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Write what is left in the ring and close the sink
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void drain() {
+        long[] batch = new long[DRAIN_BATCH * FIELDS.length];
+        try (RotatingFileSink out = sink) {
+            // read running before draining, so the last records offered before close are written
+            boolean more = true;
+            long lastFlush = System.nanoTime();
+            while (more) {
+                more = running;
+                int count = ring.drain(batch, DRAIN_BATCH);
+                while (count > 0) {
+                    out.write(batch, count);
+                    written += count;
+                    count = ring.drain(batch, DRAIN_BATCH);
+                }
+                if (!more || System.nanoTime() - lastFlush >= FLUSH_INTERVAL_NANOS) {
+                    out.flush();
+                    lastFlush = System.nanoTime();
+                }
+                if (more) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        } catch (IOException e) {
+            // the ring fills up and further records count as dropped
+            failure = e;
+            System.err.println("Telemetry stopped: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package invaders;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tokens, escapes and limits of JsonPullParser, including tokens split by its 64 KiB buffer.
+ */
+public class JsonPullParserTest {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static JsonPullParser parser(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return new JsonPullParser(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void tokensSplitAcrossTheBuffer() throws IOException {
+        String tail = "\"name\":\"a\\u00e9\\n\u20acb\",\"n\":-1234567890123,\"t\":true,\"z\":null,\"a\":[1,{\"x\":2}]}";
+        // slide the tail over the end of the first buffer so every token is split at every byte
+        for (int shift = 0; shift <= tail.length() + 8; shift++) {
+            int padding = BUFFER_SIZE - shift - "{\"pad\":\"\",".length();
+            String json = "{\"pad\":\"" + "p".repeat(padding) + "\"," + tail;
+            try (JsonPullParser parser = parser(json)) {
+                parser.beginObject();
+                assertEquals("pad", parser.nextName());
+                assertEquals(padding, parser.nextString().length());
+                assertEquals("name", parser.nextName());
+                assertEquals("a\u00e9\n\u20acb", parser.nextString(), "shift " + shift);
+                assertEquals("n", parser.nextName());
+                assertEquals(-1234567890123L, parser.nextLong(), "shift " + shift);
+                assertEquals("t", parser.nextName());
+                assertTrue(parser.nextBoolean());
+                assertEquals("z", parser.nextName());
+                parser.nextNull();
+                assertEquals("a", parser.nextName());
+                parser.skipValue();
+                parser.endObject();
+                assertEquals(JsonPullParser.Token.END_DOCUMENT, parser.peek());
+            }
+        }
+    }
+
+    @Test
+    public void escapesAndUtf8() throws IOException {
+        try (JsonPullParser parser = parser("[\"\\\"\\\\\\/\\b\\f\\n\\r\\t\\u0041\\u20AC\", \"\u00e9\u20ac\uD83D\uDE00\"]")) {
+            parser.beginArray();
+            assertEquals("\"\\/\b\f\n\r\tA\u20ac", parser.nextString());
+            assertEquals("\u00e9\u20ac\uD83D\uDE00", parser.nextString());
+            parser.endArray();
+        }
+    }
+
+    @Test
+    public void rejectsMalformedEscapes() {
+        assertThrows(IOException.class, () -> parser("\"\\x\"").nextString());
+        assertThrows(IOException.class, () -> parser("\"\\u00G0\"").nextString());
+    }
+
+    @Test
+    public void longLimits() throws IOException {
+        try (JsonPullParser parser = parser("[9223372036854775807,-9223372036854775808,0,-0]")) {
+            parser.beginArray();
+            assertEquals(Long.MAX_VALUE, parser.nextLong());
+            assertEquals(Long.MIN_VALUE, parser.nextLong());
+            assertEquals(0, parser.nextLong());
+            assertEquals(0, parser.nextLong());
+            parser.endArray();
+        }
+    }
+
+    @Test
+    public void rejectsLongOverflow() {
+        assertThrows(IOException.class, () -> parser("9223372036854775808").nextLong());
+        assertThrows(IOException.class, () -> parser("-9223372036854775809").nextLong());
+        assertThrows(IOException.class, () -> parser("99999999999999999999").nextLong());
+    }
+
+    @Test
+    public void rejectsFractionalNumbers() {
+        assertThrows(IOException.class, () -> parser("1.5").nextLong());
+        assertThrows(IOException.class, () -> parser("1e3").nextLong());
+        assertThrows(IOException.class, () -> parser("-2E-1").nextLong());
+    }
+
+    @Test
+    public void skipsFractionalNumbers() throws IOException {
+        try (JsonPullParser parser = parser("[1.5e-3, 2]")) {
+            parser.beginArray();
+            parser.skipValue();
+            assertEquals(2, parser.nextLong());
+            parser.endArray();
+        }
+    }
+
+    @Test
+    public void rejectsTrailingData() throws IOException {
+        JsonPullParser parser = parser("{} {}");
+        parser.beginObject();
+        parser.endObject();
+        IOException e = assertThrows(IOException.class, parser::peek);
+        assertTrue(e.getMessage().contains("at byte"));
+    }
+
+    @Test
+    public void allowsTrailingWhitespace() throws IOException {
+        JsonPullParser parser = parser("{}\n\t ");
+        parser.beginObject();
+        parser.endObject();
+        assertEquals(JsonPullParser.Token.END_DOCUMENT, parser.peek());
+    }
+
+    @Test
+    public void rejectsUnterminatedDocuments() {
+        assertThrows(IOException.class, () -> parser("\"abc").nextString());
+        assertThrows(IOException.class, () -> {
+            JsonPullParser parser = parser("{\"a\":");
+            parser.beginObject();
+            parser.nextName();
+            parser.skipValue();
+        });
+    }
+}
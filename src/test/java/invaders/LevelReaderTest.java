@@ -0,0 +1,108 @@
+package invaders;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Validation done by LevelReader while it streams a level to its handler.
+ */
+public class LevelReaderTest {
+    private static final String GAME = "\"Game\": {\"size\": {\"x\": 600, \"y\": 800}}";
+    private static final String PLAYER = "\"Player\": {\"speed\": 1, \"lives\": 3, \"position\": {\"x\": 300, \"y\": 750}}";
+    private static final String BUNKERS = "\"Bunkers\": [{\"position\": {\"x\": 100, \"y\": 700}, \"size\": {\"x\": 100, \"y\": 25}}]";
+    private static final String ENEMIES = "\"Enemies\": [{\"position\": {\"x\": 100, \"y\": 100}, \"projectile\": \"slow_straight\"},"
+            + " {\"position\": {\"x\": 500, \"y\": 100}, \"projectile\": \"fast_straight\"}]";
+
+    @TempDir
+    Path dir;
+
+    private static class Recorder implements LevelHandler {
+        final List<String> parts = new ArrayList<>();
+
+        @Override
+        public void size(GameConfig.Size size) {
+            parts.add("size " + size.width() + "x" + size.height());
+        }
+
+        @Override
+        public void player(GameConfig.PlayerConfig player) {
+            parts.add("player " + player.lives());
+        }
+
+        @Override
+        public void bunker(GameConfig.BunkerConfig bunker) {
+            parts.add("bunker " + bunker.position().x());
+        }
+
+        @Override
+        public void enemy(GameConfig.EnemyConfig enemy) {
+            parts.add("enemy " + enemy.projectile());
+        }
+    }
+
+    private List<String> read(String json) throws IOException {
+        Path level = Files.writeString(dir.resolve("level.json"), json);
+        Recorder recorder = new Recorder();
+        LevelReader.read(level, recorder);
+        return recorder.parts;
+    }
+
+    private String rejected(String json) {
+        return assertThrows(IllegalArgumentException.class, () -> read(json)).getMessage();
+    }
+
+    @Test
+    public void streamsPartsInFileOrder() throws IOException {
+        List<String> parts = read("{" + GAME + ", " + PLAYER + ", \"Extra\": [1, {\"a\": 2.5}], " + BUNKERS + ", " + ENEMIES + "}");
+        assertEquals(List.of("size 600x800", "player 3", "bunker 100", "enemy slow_straight", "enemy fast_straight"), parts);
+    }
+
+    @Test
+    public void rejectsMissingSections() {
+        assertTrue(rejected("{" + GAME + ", " + PLAYER + ", " + BUNKERS + "}").contains("Enemies is missing"));
+        assertTrue(rejected("{" + PLAYER + ", " + BUNKERS + ", " + ENEMIES + "}").contains("Game is missing"));
+        assertTrue(rejected("{" + GAME + ", " + BUNKERS + ", " + ENEMIES + "}").contains("Player is missing"));
+    }
+
+    @Test
+    public void rejectsDuplicateSections() {
+        String message = rejected("{" + GAME + ", " + PLAYER + ", " + PLAYER + ", " + BUNKERS + ", " + ENEMIES + "}");
+        assertTrue(message.contains("Player appears more than once"), message);
+        assertTrue(rejected("{" + GAME + ", " + PLAYER + ", " + BUNKERS + ", " + ENEMIES + ", " + ENEMIES + "}")
+                .contains("Enemies appears more than once"));
+    }
+
+    @Test
+    public void rejectsFractionalNumbers() {
+        String message = rejected("{" + GAME.replace("600", "600.5") + ", " + PLAYER + ", " + BUNKERS + ", " + ENEMIES + "}");
+        assertTrue(message.contains("Game.size.x must be an integer"), message);
+    }
+
+    @Test
+    public void rejectsOverflow() {
+        assertTrue(rejected("{" + GAME.replace("600", "3000000000") + ", " + PLAYER + ", " + BUNKERS + ", " + ENEMIES + "}")
+                .contains("Game.size.x must be an integer"));
+        assertTrue(rejected("{" + GAME.replace("600", "99999999999999999999") + ", " + PLAYER + ", " + BUNKERS + ", " + ENEMIES + "}")
+                .contains("Game.size.x must be an integer"));
+    }
+
+    @Test
+    public void rejectsTrailingData() {
+        String message = rejected("{" + GAME + ", " + PLAYER + ", " + BUNKERS + ", " + ENEMIES + "} {}");
+        assertTrue(message.contains("Trailing data"), message);
+    }
+
+    @Test
+    public void namesTheInvalidEntry() {
+        String message = rejected("{" + GAME + ", " + PLAYER + ", " + BUNKERS + ", " + ENEMIES.replace("fast_straight", "zigzag") + "}");
+        assertTrue(message.contains("Enemies[1].projectile"), message);
+    }
+}
@@ -0,0 +1,93 @@
+package invaders.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Membership, removal and ordering of EntityList.
+ */
+public class EntityListTest {
+
+    private static EntityList<String> listOf(String... elements) {
+        EntityList<String> list = new EntityList<>();
+        for (String element : elements) {
+            assertTrue(list.add(element));
+        }
+        return list;
+    }
+
+    @Test
+    public void removalKeepsTheOrderOfTheRest() {
+        EntityList<String> list = listOf("a", "b", "c", "d", "e");
+
+        assertTrue(list.remove("b"));
+        assertTrue(list.remove("d"));
+
+        assertEquals(List.of("a", "c", "e"), new ArrayList<>(list));
+        assertEquals(3, list.size());
+    }
+
+    @Test
+    public void addAfterRemovalGoesLast() {
+        EntityList<String> list = listOf("a", "b", "c");
+
+        list.remove("a");
+        list.add("d");
+
+        assertEquals(List.of("b", "c", "d"), new ArrayList<>(list));
+        assertEquals("d", list.get(2));
+    }
+
+    @Test
+    public void elementsAreHeldByIdentityAtMostOnce() {
+        String a = new String("a");
+        String equal = new String("a");
+        EntityList<String> list = listOf(a);
+
+        assertFalse(list.add(a));
+        assertTrue(list.add(equal));
+        assertTrue(list.remove(a));
+        assertFalse(list.remove(a));
+
+        assertEquals(1, list.size());
+        assertSame(equal, list.get(0));
+        assertTrue(list.contains(equal));
+        assertFalse(list.contains(a));
+    }
+
+    @Test
+    public void removeByIndexAfterRemovals() {
+        EntityList<String> list = listOf("a", "b", "c", "d");
+
+        list.remove("a");
+        assertEquals("c", list.remove(1));
+
+        assertEquals(List.of("b", "d"), new ArrayList<>(list));
+        // the moved elements are still found by identity
+        assertTrue(list.remove("d"));
+        assertEquals(List.of("b"), new ArrayList<>(list));
+    }
+
+    @Test
+    public void growsAndClears() {
+        EntityList<Integer> list = new EntityList<>();
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+        for (int i = 0; i < 100; i += 2) {
+            list.remove(list.get(i / 2));
+        }
+        for (int i = 0; i < 50; i++) {
+            assertEquals(2 * i + 1, (int) list.get(i));
+        }
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertTrue(list.add(1));
+        assertEquals(List.of(1), new ArrayList<>(list));
+    }
+}
@@ -0,0 +1,105 @@
+package invaders.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recording seeded headless matches and playing them back.
+ */
+public class ReplayTest {
+    private static final String EASY = "src/main/resources/config_easy.json";
+    private static final String HARD = "src/main/resources/config_hard.json";
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Drive the engine with held keys and shots picked by the random, as a player would
+     */
+    private static void play(GameEngine engine, SplittableRandom keys, int ticks) {
+        int held = 0;
+        for (int i = 0; i < ticks; i++) {
+            if (i % 20 == 0) {
+                held = keys.nextInt(3) == 0 ? 0 : (keys.nextBoolean() ? InputBits.LEFT : InputBits.RIGHT);
+            }
+            int bits = held;
+            if (keys.nextInt(8) == 0) {
+                bits |= InputBits.SHOOT;
+            }
+            if (keys.nextInt(400) == 0) {
+                bits |= InputBits.UNDO;
+            }
+            engine.setInput(bits);
+            engine.update();
+        }
+    }
+
+    private static void assertSameMatch(GameEngine expected, GameEngine actual) {
+        assertEquals(expected.getPoints(), actual.getPoints());
+        assertEquals(expected.getLives(), actual.getLives());
+        assertEquals(expected.getTimer(), actual.getTimer());
+    }
+
+    @Test
+    public void replayReachesTheRecordedScoreLivesAndTime() throws IOException {
+        GameEngine engine = new GameEngine(EASY, 42);
+        ReplayRecorder recorder = new ReplayRecorder(EASY, engine.getSeed(), engine.getFireRate());
+        engine.setRecorder(recorder);
+        play(engine, new SplittableRandom(7), 3000);
+        assertTrue(engine.getPoints() > 0);
+
+        Path file = dir.resolve("match.replay");
+        recorder.write(file);
+        ReplayPlayer replay = ReplayPlayer.read(file);
+
+        assertEquals(3000, replay.getTicks());
+        assertEquals(42, replay.getSeed());
+        assertSameMatch(engine, replay.play());
+    }
+
+    @Test
+    public void everyLevelIsRecordedAndPlayedInOrder() throws IOException {
+        GameEngine easy = new GameEngine(EASY, 1);
+        ReplayRecorder recorder = new ReplayRecorder(EASY, easy.getSeed(), easy.getFireRate());
+        easy.setRecorder(recorder);
+        SplittableRandom keys = new SplittableRandom(3);
+        play(easy, keys, 500);
+
+        GameEngine hard = new GameEngine(HARD, 2);
+        recorder.startLevel(HARD, hard.getSeed(), hard.getFireRate());
+        hard.setRecorder(recorder);
+        play(hard, keys, 1500);
+
+        Path file = dir.resolve("levels.replay");
+        recorder.write(file);
+        ReplayPlayer replay = ReplayPlayer.read(file);
+
+        assertEquals(2, replay.getLevels());
+        assertEquals(2000, replay.getTicks());
+        assertSameMatch(hard, replay.play());
+    }
+
+    @Test
+    public void aConfigThatDiffersFromTheRecordedOneIsRefused() throws IOException {
+        GameEngine engine = new GameEngine(EASY, 5);
+        ReplayRecorder recorder = new ReplayRecorder(EASY, engine.getSeed(), engine.getFireRate());
+        engine.setRecorder(recorder);
+        play(engine, new SplittableRandom(5), 100);
+        Path file = dir.resolve("match.replay");
+        recorder.write(file);
+        ReplayPlayer replay = ReplayPlayer.read(file);
+
+        Path moved = dir.resolve("config_easy.json");
+        Files.copy(Path.of(EASY), moved);
+        assertSameMatch(engine, replay.play(moved.toString()));
+
+        assertThrows(IllegalArgumentException.class, () -> replay.play(HARD));
+    }
+}
@@ -0,0 +1,260 @@
+package invaders.memento;
+
+import invaders.engine.GameEngine;
+import invaders.engine.InputBits;
+import invaders.factory.EnemyProjectile;
+import invaders.factory.Projectile;
+import invaders.gameobject.Bunker;
+import invaders.gameobject.Enemy;
+import invaders.rendering.Renderable;
+import invaders.state.GreenState;
+import invaders.state.YellowState;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips of the primitives MementoCodec builds its layout from, its header checks,
+ * and of played games through full and delta mementos.
+ */
+public class MementoCodecTest {
+    private static final String MEDIUM = "src/main/resources/config_medium.json";
+
+    @Test
+    public void zigzagVarintsRoundTrip() {
+        long[] values = {0, 1, -1, 63, -64, 64, -65, 8191, -8192, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Long.MAX_VALUE, Long.MIN_VALUE};
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 10);
+        for (long value : values) {
+            MementoCodec.putVarLong(buffer, MementoCodec.zigzag(value));
+        }
+        buffer.flip();
+        for (long value : values) {
+            assertEquals(value, MementoCodec.unzigzag(MementoCodec.getVarLong(buffer)));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void smallNegativesStayShort() {
+        ByteBuffer buffer = ByteBuffer.allocate(10);
+        MementoCodec.putVarLong(buffer, MementoCodec.zigzag(-64));
+        assertEquals(1, buffer.position());
+        MementoCodec.putVarLong(buffer, MementoCodec.zigzag(-65));
+        assertEquals(3, buffer.position());
+    }
+
+    @Test
+    public void wholeDeltasAreVarints() {
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        MementoCodec.putCoord(buffer, 95, 100);
+        assertEquals(1, buffer.position());
+        MementoCodec.putCoord(buffer, -2000.0, 3000.0);
+        buffer.flip();
+        assertEquals(95.0, MementoCodec.getCoord(buffer, 100));
+        assertEquals(-2000.0, MementoCodec.getCoord(buffer, 3000.0));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void fractionalDeltasFallBackToRawDoubles() {
+        double[] values = {100.5, 0.1 + 0.2, -0.0, 1e300, Double.MIN_VALUE};
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 9);
+        for (double value : values) {
+            int start = buffer.position();
+            MementoCodec.putCoord(buffer, value, 100);
+            assertEquals(9, buffer.position() - start, "raw double for " + value);
+        }
+        buffer.flip();
+        for (double value : values) {
+            assertEquals(value, MementoCodec.getCoord(buffer, 100));
+        }
+    }
+
+    @Test
+    public void rejectsOtherVersions() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putInt(MementoCodec.MAGIC).put((byte) (MementoCodec.VERSION + 1)).flip();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> MementoCodec.decode(buffer));
+        assertTrue(e.getMessage().contains("version"));
+    }
+
+    @Test
+    public void rejectsBadMagic() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putInt(0x12345678).put(MementoCodec.VERSION).flip();
+        assertThrows(IllegalArgumentException.class, () -> MementoCodec.decode(buffer));
+    }
+
+    @Test
+    public void rejectsDeltasWithoutKeyframe() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putInt(MementoCodec.MAGIC).put(MementoCodec.VERSION).put(MementoCodec.DELTA).flip();
+        assertThrows(IllegalArgumentException.class, () -> MementoCodec.decode(buffer));
+    }
+
+    @Test
+    public void rejectsUnknownKinds() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putInt(MementoCodec.MAGIC).put(MementoCodec.VERSION).put((byte) 7).flip();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> MementoCodec.decode(buffer));
+        assertTrue(e.getMessage().contains("kind"));
+    }
+
+    @Test
+    public void rejectsOverlongVarints() {
+        ByteBuffer buffer = ByteBuffer.allocate(10);
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0xFF);
+        }
+        buffer.flip();
+        assertThrows(IllegalArgumentException.class, () -> MementoCodec.getVarLong(buffer));
+    }
+
+    /**
+     * Play a seeded match with random keys until the player lost a life, scored, a bunker
+     * changed state and enemy projectiles are in flight
+     */
+    private static GameEngine playedMatch() {
+        GameEngine engine = new GameEngine(MEDIUM, 2);
+        SplittableRandom keys = new SplittableRandom(2);
+        int held = 0;
+        for (int tick = 0; tick < 5000; tick++) {
+            if (engine.getPoints() > 0 && engine.getLives() < 3 && engine.getLives() > 0
+                    && anyBunker(engine) && anyProjectile(engine)) {
+                return engine;
+            }
+            if (tick % 20 == 0) {
+                held = keys.nextInt(3) == 0 ? 0 : (keys.nextBoolean() ? InputBits.LEFT : InputBits.RIGHT);
+            }
+            int bits = held;
+            if (keys.nextInt(4) == 0) {
+                bits |= InputBits.SHOOT;
+            }
+            engine.setInput(bits);
+            engine.update();
+        }
+        throw new AssertionError("match never reached the state to test");
+    }
+
+    private static boolean anyBunker(GameEngine engine) {
+        for (Bunker bunker : living(engine, Bunker.class)) {
+            if (!(bunker.getState() instanceof GreenState)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyProjectile(GameEngine engine) {
+        for (Enemy enemy : living(engine, Enemy.class)) {
+            if (!enemy.getEnemyProjectile().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T extends Renderable> List<T> living(GameEngine engine, Class<T> type) {
+        List<T> living = new ArrayList<>();
+        for (Renderable renderable : engine.getRenderables()) {
+            if (type.isInstance(renderable) && renderable.isAlive()) {
+                living.add(type.cast(renderable));
+            }
+        }
+        return living;
+    }
+
+    private static Snapshot live(GameEngine engine) {
+        return new Snapshot(engine.getPoints(), engine.getTimer(), engine.getPlayer(),
+                living(engine, Bunker.class), living(engine, Enemy.class));
+    }
+
+    private static void assertSameState(Snapshot expected, Snapshot actual) {
+        assertEquals(expected.score(), actual.score());
+        assertEquals(expected.timer(), actual.timer());
+        assertEquals(expected.player().getPosition().getX(), actual.player().getPosition().getX());
+        assertEquals(expected.player().getPosition().getY(), actual.player().getPosition().getY());
+        assertEquals(expected.player().getHealth(), actual.player().getHealth());
+
+        assertEquals(expected.bunkers().size(), actual.bunkers().size());
+        for (int i = 0; i < expected.bunkers().size(); i++) {
+            Bunker bunker = expected.bunkers().get(i);
+            Bunker decoded = actual.bunkers().get(i);
+            assertEquals(bunker.getPosition().getX(), decoded.getPosition().getX());
+            assertEquals(bunker.getPosition().getY(), decoded.getPosition().getY());
+            assertEquals(bunker.getWidth(), decoded.getWidth());
+            assertEquals(bunker.getHeight(), decoded.getHeight());
+            assertEquals(bunker.getLives(), decoded.getLives());
+            assertSame(bunker.getState().getClass(), decoded.getState().getClass());
+        }
+
+        assertEquals(expected.enemies().size(), actual.enemies().size());
+        for (int i = 0; i < expected.enemies().size(); i++) {
+            Enemy enemy = expected.enemies().get(i);
+            Enemy decoded = actual.enemies().get(i);
+            assertEquals(enemy.getPosition().getX(), decoded.getPosition().getX());
+            assertEquals(enemy.getPosition().getY(), decoded.getPosition().getY());
+            assertEquals(enemy.getHealth(), decoded.getHealth());
+            assertEquals(enemy.getXVel(), decoded.getXVel());
+            assertSame(enemy.getProjectileStrategy().getClass(), decoded.getProjectileStrategy().getClass());
+            List<Projectile> projectiles = enemy.getEnemyProjectile();
+            assertEquals(projectiles.size(), decoded.getEnemyProjectile().size());
+            for (int p = 0; p < projectiles.size(); p++) {
+                Projectile projectile = decoded.getEnemyProjectile().get(p);
+                assertEquals(projectiles.get(p).getPosition().getX(), projectile.getPosition().getX());
+                assertEquals(projectiles.get(p).getPosition().getY(), projectile.getPosition().getY());
+                assertSame(decoded, ((EnemyProjectile) projectile).getOwner());
+            }
+        }
+    }
+
+    @Test
+    public void playedGameRoundTrips() {
+        Snapshot live = live(playedMatch());
+
+        assertSameState(live, MementoCodec.decode(MementoCodec.encode(live)));
+    }
+
+    @Test
+    public void deltaAfterDeathsAndBunkerDamageDecodesToTheLiveGame() {
+        GameEngine engine = new GameEngine(MEDIUM, 2);
+        engine.update();
+        GameEngineMemento keyframe = engine.save();
+        assertNull(keyframe.getKeyframe());
+        assertSameState(live(engine), MementoCodec.decode(keyframe));
+        // a delta lists every enemy with a shot in flight, so take it once the first ones fire
+        while (!anyProjectile(engine)) {
+            engine.update();
+        }
+
+        List<Enemy> enemies = living(engine, Enemy.class);
+        enemies.get(0).takeDamage(1);
+        enemies.get(enemies.size() - 1).takeDamage(1);
+        Bunker damaged = null;
+        for (Bunker bunker : living(engine, Bunker.class)) {
+            if (bunker.getState() instanceof GreenState) {
+                damaged = bunker;
+                break;
+            }
+        }
+        assertNotNull(damaged);
+        damaged.takeDamage(1);
+        assertTrue(damaged.getState() instanceof YellowState);
+        engine.setInput(InputBits.LEFT);
+        engine.update();
+        assertTrue(anyProjectile(engine));
+
+        GameEngineMemento delta = engine.save();
+        assertNotNull(delta.getKeyframe(), "expected a delta of the keyframe");
+        assertTrue(delta.getBytes() < keyframe.getBytes());
+        Snapshot decoded = MementoCodec.decode(delta);
+        assertEquals(enemies.size() - 2, decoded.enemies().size());
+        assertSameState(live(engine), decoded);
+    }
+}
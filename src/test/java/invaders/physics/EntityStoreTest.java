@@ -0,0 +1,141 @@
+package invaders.physics;
+
+import invaders.factory.PlayerProjectile;
+import invaders.factory.Projectile;
+import invaders.gameobject.Enemy;
+import invaders.rendering.SpriteCache;
+import invaders.strategy.NormalProjectileStrategy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ownership of entity state by EntityStore: binding, compaction and the movement pass.
+ */
+public class EntityStoreTest {
+
+    private static Projectile shot(double x, double y) {
+        return new PlayerProjectile(new Vector2D(x, y), new NormalProjectileStrategy());
+    }
+
+    private static Enemy enemy(double x, double y) {
+        Enemy enemy = new Enemy(new Vector2D(x, y));
+        enemy.setImage(SpriteCache.get("slow_alien.png", 20, 20));
+        return enemy;
+    }
+
+    @Test
+    public void storeOwnsTheStateOfABodyUntilItLeaves() {
+        EntityStore store = new EntityStore();
+        Enemy enemy = enemy(100, 50);
+        store.add(enemy);
+
+        enemy.getPosition().setX(120);
+        assertEquals(120, store.getX(0));
+        store.setY(0, 60);
+        assertEquals(60, enemy.getPosition().getY());
+        enemy.takeDamage(1);
+        assertEquals(0, store.getHealth(0));
+        assertFalse(enemy.isAlive());
+        assertEquals(20, store.getWidth(0));
+
+        assertTrue(store.remove(enemy));
+        store.compact();
+        assertEquals(0, store.size());
+        // the enemy holds its state again, unchanged
+        assertEquals(120, enemy.getPosition().getX());
+        assertEquals(60, enemy.getPosition().getY());
+        assertEquals(0, enemy.getHealth());
+        assertFalse(store.remove(enemy));
+    }
+
+    @Test
+    public void compactionKeepsOrderAndHandlesFollowTheirSlots() {
+        EntityStore store = new EntityStore();
+        Projectile a = shot(10, 100);
+        Projectile b = shot(20, 100);
+        Projectile c = shot(30, 100);
+        store.add(a);
+        store.add(b);
+        store.add(c);
+
+        store.remove(b);
+        store.compact();
+
+        assertEquals(2, store.size());
+        assertSame(a, store.get(0));
+        assertSame(c, store.get(1));
+        assertEquals(30, c.getPosition().getX());
+        c.takeDamage(1);
+        assertEquals(0, store.getHealth(1));
+        assertEquals(1, store.getHealth(0));
+    }
+
+    @Test
+    public void advanceMovesLivingBodiesWithAVelocity() {
+        EntityStore store = new EntityStore();
+        Projectile live = shot(10, 100);
+        Projectile spent = shot(30, 100);
+        Enemy enemy = enemy(50, 50);
+        store.add(live);
+        store.add(spent);
+        store.add(enemy);
+        spent.takeDamage(1);
+        int version = live.getPosition().getVersion();
+
+        store.advance();
+
+        assertEquals(98, live.getPosition().getY());
+        assertNotEquals(version, live.getPosition().getVersion());
+        assertEquals(100, spent.getPosition().getY());
+        // enemies are moved by their formation
+        assertEquals(50, enemy.getPosition().getY());
+        enemy.step(-1, 25);
+        assertEquals(49, enemy.getPosition().getX());
+        assertEquals(75, enemy.getPosition().getY());
+        assertEquals(-1, enemy.getDisplacementX());
+    }
+
+    @Test
+    public void displacementOnlySweepsWhenTheWorldMoved() {
+        EntityStore store = new EntityStore();
+        store.add(shot(10, 100));
+
+        store.refresh(false);
+        assertEquals(0, store.getDy(0));
+        assertEquals(100, store.getSweptMaxY(0) - 10);
+
+        store.refresh(true);
+        assertEquals(-2, store.getDy(0));
+        assertEquals(102, store.getSweptMaxY(0) - 10);
+    }
+
+    @Test
+    public void positionsInterpolateFromTheStartOfTheTick() {
+        EntityStore store = new EntityStore();
+        Projectile shot = shot(10, 100);
+        Vector2D position = shot.getPosition();
+        store.add(shot);
+
+        // a body that just entered is drawn where it is
+        assertEquals(100, position.interpolateY(0.5));
+
+        store.beginTick();
+        store.advance();
+        assertEquals(100, position.interpolateY(0));
+        assertEquals(99, position.interpolateY(0.5));
+        assertEquals(98, position.interpolateY(1));
+        assertEquals(10, position.interpolateX(0.5));
+
+        // a tick without motion leaves nothing to interpolate
+        store.beginTick();
+        assertEquals(98, position.interpolateY(0.25));
+    }
+
+    @Test
+    public void aPositionBelongsToOneStore() {
+        Projectile shot = shot(10, 100);
+        new EntityStore().add(shot);
+        assertThrows(IllegalStateException.class, () -> new EntityStore().add(shot));
+    }
+}